@@ -4,6 +4,8 @@ import java.text.ParseException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.format.Formatter;
 
@@ -13,9 +15,12 @@ import org.springframework.format.Formatter;
 public final class LocalDateTimeFormatter implements Formatter<LocalDateTime> {
 
 	private final String pattern;
+	private final DateTimeFormatter formatter;
+	private final Map<Locale, DateTimeFormatter> localizedFormatters = new ConcurrentHashMap<>();
 
 	public LocalDateTimeFormatter(String pattern) {
 		this.pattern = pattern;
+		this.formatter = DateTimeFormatter.ofPattern(pattern);
 	}
 
 	@Override
@@ -42,10 +47,10 @@ public final class LocalDateTimeFormatter implements Formatter<LocalDateTime> {
 	}
 
 	private DateTimeFormatter getFormatter(Locale locale) {
-		return DateTimeFormatter.ofPattern(pattern, locale);
+		return localizedFormatters.computeIfAbsent(locale, l -> DateTimeFormatter.ofPattern(pattern, l));
 	}
 
 	private DateTimeFormatter getFormatter() {
-		return DateTimeFormatter.ofPattern(pattern);
+		return formatter;
 	}
 }
@@ -5,9 +5,13 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
+import org.octri.common.view.PageAssets;
+import org.octri.common.view.ValueConverters;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 
 import com.samskivert.mustache.Mustache;
 import com.samskivert.mustache.Mustache.TemplateLoader;
@@ -106,6 +110,25 @@ public class ViewConfig {
 		return new LocalDateTimeFormatter(getDateTimePattern());
 	}
 
+	/**
+	 * ValueConverters bean used to format exported values with the configured date patterns.
+	 *
+	 * @return
+	 */
+	@Bean
+	public ValueConverters valueConverters() {
+		return new ValueConverters(this);
+	}
+
+	/**
+	 * Resolves the page asset bundles declared by controllers against the Vite manifest once the application is ready,
+	 * so a broken manifest fails at startup instead of on the first page view.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void resolvePageAssets() {
+		PageAssets.resolveAll();
+	}
+
 	/**
 	 * Properties that may be useful in templates.
 	 *
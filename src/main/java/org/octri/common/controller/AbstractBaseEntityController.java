@@ -1,26 +1,87 @@
 package org.octri.common.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.octri.common.domain.AbstractEntity;
+import org.octri.common.repository.Keyset;
+import org.octri.common.view.ColumnSelection;
+import org.octri.common.view.CsvExporter;
+import org.octri.common.view.ExcelExporter;
+import org.octri.common.view.Exporter;
+import org.octri.common.view.PageAssets;
+import org.octri.common.view.ReflectiveTable;
+import org.octri.common.view.ValueConverters;
 import org.octri.common.view.ViewUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.propertyeditors.CustomDateEditor;
 import org.springframework.beans.propertyeditors.StringTrimmerEditor;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.support.RequestContextUtils;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 
 /**
  * Abstract class that provides methods for performing CRUD tasks for AbstractEntity objects. However, this class does
@@ -37,9 +98,36 @@ public abstract class AbstractBaseEntityController<T extends AbstractEntity, U e
 
 	private static final Log log = LogFactory.getLog(AbstractBaseEntityController.class);
 
+	private static final PageAssets LIST_ASSETS = PageAssets.of()
+			.withWebjars("datatables/js/dataTables.min.js", "datatables/js/dataTables.bootstrap5.min.js")
+			.withScripts("table-sorting.js");
+	private static final PageAssets FORM_ASSETS = PageAssets.of().withScripts("form-reset.js");
+
+	/**
+	 * Default number of entities on a page of the paginated list view.
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 25;
+
+	/**
+	 * Default maximum number of entities on a page of the paginated list view.
+	 */
+	public static final int DEFAULT_MAX_PAGE_SIZE = 100;
+
+	/**
+	 * Default number of entities read per query when exporting.
+	 */
+	public static final int DEFAULT_EXPORT_CHUNK_SIZE = 1000;
+
 	// cached values
 	private String templateFolder;
 	private String baseRoute;
+	private Set<String> sortableProperties;
+	private List<String> dataTableColumns;
+
+	private EntityManager entityManager;
+	private ObjectProvider<PlatformTransactionManager> transactionManagerProvider;
+	private ObjectProvider<Validator> validatorProvider;
+	private ObjectProvider<ValueConverters> valueConvertersProvider;
 
 	/**
 	 * Class of the domain entity. Needed due to java type erasure.
@@ -75,13 +163,417 @@ public abstract class AbstractBaseEntityController<T extends AbstractEntity, U e
 	 */
 	public String list(Map<String, Object> model) {
 		addTemplateAttributes(model);
-		ViewUtils.addPageWebjar(model, "datatables/js/dataTables.min.js");
-		ViewUtils.addPageWebjar(model, "datatables/js/dataTables.bootstrap5.min.js");
-		ViewUtils.addPageScript(model, "table-sorting.js");
+		addListAssets(model);
 		model.put("entity_list", getRepository().findAll());
 		return template("list");
 	}
 
+	/**
+	 * Renders a page of the entity list view if {@link #paginatedList()} is enabled, and the full list otherwise. The
+	 * model's {@code page} attribute describes the current page.
+	 *
+	 * @param model
+	 *            map containing template data
+	 * @param listRequest
+	 *            requested page, page size and sort
+	 * @return the entity list
+	 * @throws IllegalStateException
+	 *             if the list is paginated but the repository does not support paging
+	 */
+	public String list(Map<String, Object> model, ListRequest listRequest) {
+		if (serverSideList()) {
+			addTemplateAttributes(model);
+			addListAssets(model);
+			model.put("entity_list", List.of());
+			model.put("serverSide", true);
+			model.put("dataRoute", this.getBaseRoute() + "/data");
+			model.put("dataColumns", getDataTableColumns());
+			return template("list");
+		}
+		if (keysetList()) {
+			return keysetList(model, listRequest);
+		}
+		if (!paginatedList()) {
+			return list(model);
+		}
+		addTemplateAttributes(model);
+		addListAssets(model);
+
+		Pageable pageable = listRequest.toPageable(defaultPageSize(), maxPageSize(), getSortableProperties(),
+				defaultSort());
+		Page<T> page = pagingRepository().findAll(pageable);
+		model.put("entity_list", page.getContent());
+		model.put("page", pageAttributes(page));
+		return template("list");
+	}
+
+	/**
+	 * Renders a keyset page of the entity list view. The page starts after the entity whose ID is given by the
+	 * {@code after} request parameter, so deep pages cost the same as the first page. The model's {@code page}
+	 * attribute has {@code keyset}, {@code size}, {@code first}, {@code hasNext} and {@code next} properties, where
+	 * {@code next} is the {@code after} value of the next page. Total counts are not computed.
+	 *
+	 * @param model
+	 *            map containing template data
+	 * @param listRequest
+	 *            requested page size and position
+	 * @return the entity list
+	 * @throws IllegalStateException
+	 *             if the repository does not implement {@link JpaSpecificationExecutor}
+	 */
+	protected String keysetList(Map<String, Object> model, ListRequest listRequest) {
+		addTemplateAttributes(model);
+		addListAssets(model);
+
+		int size = listRequest.toPageable(defaultPageSize(), maxPageSize(), Set.of(), defaultSort()).getPageSize();
+		String property = keysetSortProperty();
+		Sort.Direction direction = keysetSortDirection();
+		List<T> entities = Keyset.page(specificationRepository(), keysetPosition(listRequest.getAfter()),
+				Keyset.sort(property, direction), size + 1);
+		boolean hasNext = entities.size() > size;
+		if (hasNext) {
+			entities = entities.subList(0, size);
+		}
+
+		Map<String, Object> page = new HashMap<>();
+		page.put("keyset", true);
+		page.put("size", size);
+		page.put("first", listRequest.getAfter() == null);
+		page.put("hasNext", hasNext);
+		if (hasNext) {
+			page.put("next", entities.get(entities.size() - 1).getId());
+		}
+		model.put("entity_list", entities);
+		model.put("page", page);
+		return template("list");
+	}
+
+	/**
+	 * Answers a DataTables server-side processing request. Filtering, sorting and counting are done by the database,
+	 * and only the requested page of entities is loaded. The global search matches the searchable text columns,
+	 * ignoring case. Only answered if {@link #serverSideList()} is enabled.
+	 *
+	 * @param params
+	 *            request parameters sent by DataTables
+	 * @return the requested rows and counts, or 404 if server-side lists are disabled
+	 * @throws IllegalStateException
+	 *             if the repository does not implement {@link JpaSpecificationExecutor}, or
+	 *             {@link #dataTableColumns()} is not overridden
+	 */
+	public ResponseEntity<DataTablesResponse> dataTable(Map<String, String> params) {
+		if (!serverSideList()) {
+			return ResponseEntity.notFound().build();
+		}
+		DataTablesRequest request = DataTablesRequest.of(params);
+		List<String> columns = getDataTableColumns();
+		Pageable pageable = request.toPageable(maxPageSize(), getSortableProperties(), defaultSort());
+
+		List<String> searchColumns = request.getSearchableColumns().stream()
+				.filter(columns::contains)
+				.toList();
+		Specification<T> search = dataTableSearch(request.getSearch(), searchColumns);
+		if (search == null) {
+			search = (root, query, builder) -> null;
+		}
+		Page<T> page = specificationRepository().findAll(search, pageable);
+		long total = request.getSearch() == null || request.getSearch().isBlank()
+				? page.getTotalElements()
+				: getRepository().count();
+
+		ReflectiveTable<T> table = new ReflectiveTable<>(entityName(), domainClass(), page.getContent(),
+				ColumnSelection.include(columns));
+		table.setValueConverters(valueConverters());
+		List<List<String>> rows = table.rows();
+		List<Map<String, Object>> data = new ArrayList<>(rows.size());
+		for (int r = 0; r < rows.size(); r++) {
+			Map<String, Object> row = new LinkedHashMap<>();
+			Long id = page.getContent().get(r).getId();
+			row.put("DT_RowId", "row_" + id);
+			row.put("id", id);
+			for (int c = 0; c < columns.size(); c++) {
+				row.put(columns.get(c), rows.get(r).get(c));
+			}
+			data.add(row);
+		}
+		return ResponseEntity.ok(new DataTablesResponse(request.getDraw(), total, page.getTotalElements(), data));
+	}
+
+	/**
+	 * Creates a batch of new entities. Entities that have an ID or fail {@link #checkCreate(AbstractEntity)} are
+	 * reported, and the rest are saved with a single {@code saveAll} in one transaction. If the transaction fails on a
+	 * constraint, the batch is split in halves that are saved again separately, until the failing entities are
+	 * isolated; the checks are not repeated. Only answered if {@link #batchEnabled()} is enabled.
+	 *
+	 * @param entities
+	 *            new entities
+	 * @return the saved entities and the entities that failed, or 404 if batch operations are disabled
+	 */
+	public ResponseEntity<BatchResult<T>> createAll(List<T> entities) {
+		if (!batchEnabled()) {
+			return ResponseEntity.notFound().build();
+		}
+		BatchResult<T> result = new BatchResult<>();
+		List<Integer> indexes = new ArrayList<>();
+		for (int i = 0; i < entities.size(); i++) {
+			T entity = entities.get(i);
+			String errors = entity.getId() != null ? "ID must not be set" : checkCreate(entity);
+			if (errors != null) {
+				result.addFailure(i, entity.getId(), BatchResult.Reason.INVALID, errors);
+			} else {
+				indexes.add(i);
+			}
+		}
+		saveBatch(entities, indexes, result);
+		return ResponseEntity.ok(result);
+	}
+
+	/**
+	 * Updates a batch of existing entities. Entities that have no ID or version, fail
+	 * {@link #checkUpdate(AbstractEntity)}, no longer exist, or whose version does not match the stored version are
+	 * reported, and the rest are saved with a single {@code saveAll} in one transaction. If the transaction fails on a
+	 * constraint or an optimistic lock, the batch is split in halves that are saved again separately, until the
+	 * failing entities are isolated; the checks are not repeated. Only answered if {@link #batchEnabled()} is
+	 * enabled.
+	 *
+	 * @param entities
+	 *            updated entities, with their ID and the version they were read at
+	 * @return the saved entities and the entities that failed, or 404 if batch operations are disabled
+	 */
+	public ResponseEntity<BatchResult<T>> updateAll(List<T> entities) {
+		if (!batchEnabled()) {
+			return ResponseEntity.notFound().build();
+		}
+		BatchResult<T> result = new BatchResult<>();
+		List<Integer> candidates = new ArrayList<>();
+		for (int i = 0; i < entities.size(); i++) {
+			T entity = entities.get(i);
+			String errors;
+			if (entity.getId() == null) {
+				errors = "ID is required";
+			} else if (entity.getVersion() == null) {
+				errors = "Version is required";
+			} else {
+				errors = checkUpdate(entity);
+			}
+			if (errors != null) {
+				result.addFailure(i, entity.getId(), BatchResult.Reason.INVALID, errors);
+			} else {
+				candidates.add(i);
+			}
+		}
+
+		Map<Long, Integer> versions = currentVersions(candidates.stream().map(i -> entities.get(i).getId()).toList());
+		List<Integer> indexes = new ArrayList<>();
+		for (int i : candidates) {
+			T entity = entities.get(i);
+			if (!versions.containsKey(entity.getId())) {
+				result.addFailure(i, entity.getId(), BatchResult.Reason.NOT_FOUND,
+						this.entityName() + " does not exist.");
+			} else if (!entity.getVersion().equals(versions.get(entity.getId()))) {
+				result.addFailure(i, entity.getId(), BatchResult.Reason.CONFLICT,
+						this.entityName() + " was changed by another user.");
+			} else {
+				indexes.add(i);
+			}
+		}
+		saveBatch(entities, indexes, result);
+		return ResponseEntity.ok(result);
+	}
+
+	/**
+	 * Deletes a batch of entities by ID. IDs that do not exist or fail {@link #checkDelete(Long)} are reported, and the
+	 * rest are deleted in one transaction with a single {@code deleteAllByIdInBatch} if the repository is a
+	 * {@link JpaRepository}, or with {@code deleteAllById} otherwise. A bulk delete does not load the entities, so
+	 * JPA cascades and entity callbacks do not run; rely on database constraints, or use a repository that is not a
+	 * {@code JpaRepository}, if they must. If the transaction fails because an entity is in use, the batch is split in
+	 * halves that are deleted again separately, until the entities in use are isolated. Only answered if
+	 * {@link #batchEnabled()} is enabled.
+	 *
+	 * @param ids
+	 *            IDs of the entities to delete
+	 * @return the deleted IDs and the IDs that failed, or 404 if batch operations are disabled
+	 */
+	public ResponseEntity<BatchResult<Long>> deleteAll(List<Long> ids) {
+		if (!batchEnabled()) {
+			return ResponseEntity.notFound().build();
+		}
+		BatchResult<Long> result = new BatchResult<>();
+		Map<Long, Integer> existing = currentVersions(ids.stream().filter(id -> id != null).toList());
+		List<Integer> indexes = new ArrayList<>();
+		for (int i = 0; i < ids.size(); i++) {
+			String errors;
+			if (!existing.containsKey(ids.get(i))) {
+				result.addFailure(i, ids.get(i), BatchResult.Reason.NOT_FOUND, this.entityName() + " does not exist.");
+			} else if ((errors = checkDelete(ids.get(i))) != null) {
+				result.addFailure(i, ids.get(i), BatchResult.Reason.INVALID, errors);
+			} else {
+				indexes.add(i);
+			}
+		}
+		deleteBatch(ids, indexes, result);
+		return ResponseEntity.ok(result);
+	}
+
+	/**
+	 * Whether the batch create, update and delete routes are answered. Disabled by default.
+	 *
+	 * @return true to enable batch operations
+	 */
+	protected boolean batchEnabled() {
+		return false;
+	}
+
+	/**
+	 * Checks a new entity of a batch create before any entity of the batch is saved. Called once per entity. Override
+	 * to add authorization or business rules, calling this method to keep bean validation.
+	 *
+	 * @param entity
+	 *            new entity
+	 * @return a description of why the entity cannot be created, or null if it can
+	 */
+	protected String checkCreate(T entity) {
+		return validationErrors(entity);
+	}
+
+	/**
+	 * Checks an entity of a batch update before any entity of the batch is saved. Called once per entity that has an
+	 * ID and a version. Override to add authorization or business rules, calling this method to keep bean
+	 * validation.
+	 *
+	 * @param entity
+	 *            updated entity
+	 * @return a description of why the entity cannot be updated, or null if it can
+	 */
+	protected String checkUpdate(T entity) {
+		return validationErrors(entity);
+	}
+
+	/**
+	 * Checks an ID of a batch delete before any entity of the batch is deleted. Called once per existing entity.
+	 * Override to add authorization or business rules.
+	 *
+	 * @param id
+	 *            ID of the entity to delete
+	 * @return a description of why the entity cannot be deleted, or null if it can
+	 */
+	protected String checkDelete(Long id) {
+		return null;
+	}
+
+	/**
+	 * Exports the entities of {@link #exportEntities()} in the given format. The entities are read inside a read-only
+	 * transaction and written while the response is sent. Only answered if {@link #exportEnabled()} is enabled.
+	 *
+	 * @param format
+	 *            export format, such as csv or xlsx
+	 * @return the streamed export, or 404 if exports are disabled or the format is not supported
+	 * @throws IllegalStateException
+	 *             if exports are enabled but {@link #exportColumns()} is not overridden
+	 */
+	public ResponseEntity<StreamingResponseBody> export(String format) {
+		if (!exportEnabled()) {
+			return ResponseEntity.notFound().build();
+		}
+		if (exportColumns() == null) {
+			throw new IllegalStateException("Exports require exportColumns() to be overridden for " + this.entityName());
+		}
+		Exporter exporter = exporter(format);
+		if (exporter == null) {
+			return ResponseEntity.notFound().build();
+		}
+
+		StreamingResponseBody body = outputStream -> {
+			try {
+				exportTransactionOperations().executeWithoutResult(status -> {
+					try {
+						writeExport(exporter, outputStream);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		};
+
+		var disposition = ContentDisposition.attachment().filename(exporter.outputFileName(entityName())).build();
+		var response = ResponseEntity.ok()
+				.header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+				.contentType(MediaType.APPLICATION_OCTET_STREAM);
+		if (exporter.getContentEncoding() != null) {
+			response.header(HttpHeaders.CONTENT_ENCODING, exporter.getContentEncoding());
+		}
+		return response.body(body);
+	}
+
+	/**
+	 * Writes the export of {@link #exportEntities()}. Called inside a read-only transaction.
+	 *
+	 * @param exporter
+	 *            exporter that writes the file
+	 * @param outputStream
+	 *            stream the export is written to
+	 * @throws IOException
+	 */
+	protected void writeExport(Exporter exporter, OutputStream outputStream) throws IOException {
+		ReflectiveTable<T> table = new ReflectiveTable<>(entityName(), domainClass(), exportEntities(), exportColumns());
+		table.setValueConverters(valueConverters());
+		exporter.export(outputStream, table);
+	}
+
+	/**
+	 * The entities to export. Defaults to all entities, read with {@link Keyset#readOnlyChunks} in chunks of
+	 * {@link #exportChunkSize()}: the entities are read-only and the persistence context is cleared between chunks, so
+	 * memory use does not depend on the size of the table. Override to restrict the export, for example to the
+	 * entities the current user may see, and keep the stream lazy.
+	 *
+	 * @return a lazy stream of the entities to export
+	 */
+	protected Stream<T> exportEntities() {
+		return Keyset.readOnlyChunks(getEntityManager(), domainClass(), exportChunkSize()).flatMap(List::stream);
+	}
+
+	/**
+	 * Creates the exporter for an export format. Supports csv and xlsx by default.
+	 *
+	 * @param format
+	 *            export format requested
+	 * @return a new exporter, or null if the format is not supported
+	 */
+	protected Exporter exporter(String format) {
+		return switch (format) {
+		case "csv" -> new CsvExporter();
+		case "xlsx" -> ExcelExporter.streaming();
+		default -> null;
+		};
+	}
+
+	/**
+	 * Whether the export route is answered. Disabled by default, because exports send every entity in the table.
+	 *
+	 * @return true to enable exports
+	 */
+	protected boolean exportEnabled() {
+		return false;
+	}
+
+	/**
+	 * Columns included in exports. Controllers that enable {@link #exportEnabled()} must override this to choose the
+	 * exported columns, so that fields are never exported unless they are listed.
+	 *
+	 * @return columns included in exports, such as {@code ColumnSelection.include("name", "startDate")}
+	 */
+	protected ColumnSelection exportColumns() {
+		return null;
+	}
+
+	/**
+	 * @return number of entities read per query when exporting
+	 */
+	protected int exportChunkSize() {
+		return DEFAULT_EXPORT_CHUNK_SIZE;
+	}
+
 	/**
 	 * Renders the details page for the entity with the given ID.
 	 * 
@@ -93,10 +585,26 @@ public abstract class AbstractBaseEntityController<T extends AbstractEntity, U e
 	 */
 	public String show(Map<String, Object> model, @PathVariable Long id) {
 		addTemplateAttributes(model);
-		model.put("entity", getRepository().findById(id).get());
+		model.put("entity", findEntity(id));
 		return template("show");
 	}
 
+	/**
+	 * Renders the details page for the entity with the given ID, or answers 304 Not Modified if
+	 * {@link #conditionalGet()} is enabled and the browser's copy of the page is current.
+	 *
+	 * @param model
+	 *            map containing template data
+	 * @param id
+	 *            ID of the entity to display
+	 * @param webRequest
+	 *            current request
+	 * @return the entity details page, or null if the page was not modified
+	 */
+	public String show(Map<String, Object> model, Long id, WebRequest webRequest) {
+		return renderConditionally(model, id, webRequest, () -> show(model, id));
+	}
+
 	/**
 	 * Renders the form to create a new entity.
 	 * 
@@ -106,7 +614,7 @@ public abstract class AbstractBaseEntityController<T extends AbstractEntity, U e
 	 */
 	public String newEntity(Map<String, Object> model) {
 		addTemplateAttributes(model);
-		ViewUtils.addPageScript(model, "form-reset.js");
+		ViewUtils.addPageAssets(model, FORM_ASSETS);
 		model.put("entity", newEntity());
 		return template("form");
 	}
@@ -128,6 +636,7 @@ public abstract class AbstractBaseEntityController<T extends AbstractEntity, U e
 			@Valid @ModelAttribute("entity") T entity,
 			BindingResult bindingResult, RedirectAttributes redirectAttributes) {
 		T newEntity = this.getRepository().save(entity);
+		invalidateCachedEntity(newEntity.getId());
 		model.put("newEntity", newEntity);
 		redirectAttributes.addFlashAttribute("successMessage", this.entityName() + " successfully created.");
 		return showRedirect(newEntity.getId());
@@ -144,10 +653,26 @@ public abstract class AbstractBaseEntityController<T extends AbstractEntity, U e
 	 */
 	public String edit(Map<String, Object> model, @PathVariable Long id) {
 		addTemplateAttributes(model);
-		model.put("entity", getRepository().findById(id).get());
+		model.put("entity", findEntity(id));
 		return template("form");
 	}
 
+	/**
+	 * Renders the form to edit an entity, or answers 304 Not Modified if {@link #conditionalGet()} is enabled and the
+	 * browser's copy of the form is current.
+	 *
+	 * @param model
+	 *            template model data
+	 * @param id
+	 *            entity ID
+	 * @param webRequest
+	 *            current request
+	 * @return form page to edit the entity with the given ID, or null if the page was not modified
+	 */
+	public String edit(Map<String, Object> model, Long id, WebRequest webRequest) {
+		return renderConditionally(model, id, webRequest, () -> edit(model, id));
+	}
+
 	/**
 	 * Saves entity updates.
 	 *
@@ -167,6 +692,7 @@ public abstract class AbstractBaseEntityController<T extends AbstractEntity, U e
 			@Valid @ModelAttribute("entity") T entity, BindingResult bindingResult,
 			RedirectAttributes redirectAttributes) {
 		this.getRepository().save(entity);
+		invalidateCachedEntity(id);
 		redirectAttributes.addFlashAttribute("infoMessage", this.entityName() + " updated.");
 		return showRedirect(id);
 	}
@@ -183,6 +709,7 @@ public abstract class AbstractBaseEntityController<T extends AbstractEntity, U e
 	public String delete(@PathVariable Long id, RedirectAttributes redirectAttributes) {
 		try {
 			getRepository().deleteById(id);
+			invalidateCachedEntity(id);
 		} catch (DataIntegrityViolationException e) {
 			String msg = this.entityName() + " is in use and cannot be deleted.";
 			redirectAttributes.addFlashAttribute("errorMessage", msg);
@@ -194,6 +721,259 @@ public abstract class AbstractBaseEntityController<T extends AbstractEntity, U e
 		return listingRedirect();
 	}
 
+	/**
+	 * Cache of entities read by the details and edit pages. Cached entities are validated against the version stored
+	 * in the database with a query that reads only the version, and are invalidated when this controller creates,
+	 * updates or deletes them. Each request is given its own copy of a cached entity. Defaults to null, which loads
+	 * the entity from the repository on every request.
+	 *
+	 * @return the entity cache, or null to disable caching
+	 */
+	protected EntityReadCache<T> entityReadCache() {
+		return null;
+	}
+
+	/**
+	 * Loads the entity shown by the details and edit pages, through {@link #entityReadCache()} if it is enabled.
+	 *
+	 * @param id
+	 *            entity ID
+	 * @return the entity
+	 * @throws java.util.NoSuchElementException
+	 *             if the entity does not exist
+	 */
+	protected T findEntity(Long id) {
+		EntityReadCache<T> cache = entityReadCache();
+		if (cache == null) {
+			return getRepository().findById(id).get();
+		}
+		Tuple stamp = versionStamp(id);
+		T entity = cache.get(id, stamp != null ? stamp.get(0, Integer.class) : null);
+		if (entity == null) {
+			entity = getRepository().findById(id).get();
+			cache.put(entity);
+		}
+		return entity;
+	}
+
+	/**
+	 * Whether the details and edit pages answer conditional requests. When enabled, the pages are sent with a weak
+	 * ETag derived from the entity's ID, version and the user's session, a Last-Modified header from
+	 * {@link AbstractEntity#getUpdatedAt()} and {@code Cache-Control: private, no-cache}, and requests whose
+	 * {@code If-None-Match} or {@code If-Modified-Since} headers match are answered with 304 Not Modified without
+	 * rendering the template. Pages that show flash messages are always rendered. Disabled by default.
+	 *
+	 * @return true to answer conditional requests for the details and edit pages
+	 */
+	protected boolean conditionalGet() {
+		return false;
+	}
+
+	/**
+	 * Whether conditional requests are checked against the entity's version with a query that reads only the version
+	 * and update time, before the entity is loaded. Unchanged pages then skip loading the entity, at the cost of an
+	 * extra query for changed pages. When disabled, the entity is loaded and the check is made before the template is
+	 * rendered. Disabled by default.
+	 *
+	 * @return true to look up the version before loading the entity
+	 */
+	protected boolean conditionalGetVersionLookup() {
+		return false;
+	}
+
+	/**
+	 * Part of the ETag that distinguishes pages rendered for different users of the same entity, since pages include
+	 * user-specific content such as the user's name and CSRF tokens. Defaults to a hash of the session ID, or an empty
+	 * string if there is no session.
+	 *
+	 * @param webRequest
+	 *            current request
+	 * @return ETag variant
+	 */
+	protected String conditionalGetVariant(WebRequest webRequest) {
+		HttpServletRequest request = webRequest instanceof NativeWebRequest nativeRequest
+				? nativeRequest.getNativeRequest(HttpServletRequest.class)
+				: null;
+		HttpSession session = request != null ? request.getSession(false) : null;
+		return session != null ? Integer.toHexString(session.getId().hashCode()) : "";
+	}
+
+	/**
+	 * Whether the list view shows a page of entities instead of all of them. Paginated lists require a repository
+	 * that implements {@link PagingAndSortingRepository}. Disabled by default.
+	 *
+	 * @return true to paginate the list view
+	 */
+	protected boolean paginatedList() {
+		return false;
+	}
+
+	/**
+	 * Whether the list view renders an empty table that loads its rows from the DataTables endpoint. Server-side lists
+	 * require a repository that implements {@link JpaSpecificationExecutor}. Disabled by default. The list template
+	 * receives {@code serverSide}, {@code dataRoute} and {@code dataColumns} attributes.
+	 *
+	 * @return true to load the list's rows from the DataTables endpoint
+	 */
+	protected boolean serverSideList() {
+		return false;
+	}
+
+	/**
+	 * Columns returned by the DataTables endpoint, in addition to the ID. Columns must be fields declared by the entity
+	 * class. Controllers that enable {@link #serverSideList()} must override this to list the columns their table
+	 * shows, so fields that are not displayed are never sent to the browser.
+	 *
+	 * @return property names of the columns
+	 */
+	protected List<String> dataTableColumns() {
+		return List.of();
+	}
+
+	/**
+	 * Builds the filter for a DataTables global search. Defaults to a case-insensitive substring match on any of the
+	 * given columns that hold text.
+	 *
+	 * @param term
+	 *            search term, or null
+	 * @param columns
+	 *            searchable columns
+	 * @return the filter, or null to match all entities
+	 */
+	protected Specification<T> dataTableSearch(String term, List<String> columns) {
+		if (term == null || term.isBlank()) {
+			return null;
+		}
+		List<String> textColumns = columns.stream()
+				.filter(column -> {
+					Field field = ReflectionUtils.findField(domainClass(), column);
+					return field != null && String.class.equals(field.getType());
+				})
+				.toList();
+		if (textColumns.isEmpty()) {
+			return (root, query, builder) -> builder.disjunction();
+		}
+		String pattern = "%" + term.trim().toLowerCase()
+				.replace("\\", "\\\\")
+				.replace("%", "\\%")
+				.replace("_", "\\_") + "%";
+		return (root, query, builder) -> builder.or(textColumns.stream()
+				.map(column -> builder.like(builder.lower(root.<String> get(column)), pattern, '\\'))
+				.toArray(Predicate[]::new));
+	}
+
+	/**
+	 * Converters used to format values returned by the DataTables and export endpoints. Defaults to the application's
+	 * {@link ValueConverters} bean, which uses the configured date patterns, or {@link ValueConverters#defaults()} if
+	 * there is none.
+	 *
+	 * @return value converters
+	 */
+	protected ValueConverters valueConverters() {
+		return valueConvertersProvider != null ? valueConvertersProvider.getIfAvailable(ValueConverters::defaults)
+				: ValueConverters.defaults();
+	}
+
+	/**
+	 * Whether the list view uses keyset pagination, where each page starts after the last entity of the previous page
+	 * instead of at an offset. Keyset lists require a repository that implements {@link JpaSpecificationExecutor}.
+	 * Disabled by default.
+	 *
+	 * @return true to paginate the list view by keyset
+	 * @see #keysetSortProperty()
+	 */
+	protected boolean keysetList() {
+		return false;
+	}
+
+	/**
+	 * Property keyset pages are sorted by, with the ID as a tie-breaker. The property must not be null. Defaults to the
+	 * ID.
+	 *
+	 * @return sort property
+	 */
+	protected String keysetSortProperty() {
+		return "id";
+	}
+
+	/**
+	 * @return direction keyset pages are sorted in
+	 */
+	protected Sort.Direction keysetSortDirection() {
+		return Sort.Direction.ASC;
+	}
+
+	/**
+	 * @return number of entities on a page when no size is requested
+	 */
+	protected int defaultPageSize() {
+		return DEFAULT_PAGE_SIZE;
+	}
+
+	/**
+	 * @return largest number of entities on a page that may be requested
+	 */
+	protected int maxPageSize() {
+		return DEFAULT_MAX_PAGE_SIZE;
+	}
+
+	/**
+	 * @return sort used when no sort is requested, or the requested property may not be sorted by
+	 */
+	protected Sort defaultSort() {
+		return Sort.by("id");
+	}
+
+	/**
+	 * Properties the list may be sorted by. Requests to sort by other properties use the default sort. Defaults to
+	 * the ID and audit timestamps, and the entity's own fields other than associations and collections.
+	 *
+	 * @return names of sortable properties
+	 */
+	protected Set<String> sortableProperties() {
+		Set<String> properties = new LinkedHashSet<>(List.of("id", "createdAt", "updatedAt"));
+		for (Field field : domainClass().getDeclaredFields()) {
+			int modifiers = field.getModifiers();
+			Class<?> type = field.getType();
+			if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)
+					|| field.isAnnotationPresent(Transient.class)
+					|| AbstractEntity.class.isAssignableFrom(type)
+					|| Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+				continue;
+			}
+			properties.add(field.getName());
+		}
+		return properties;
+	}
+
+	/**
+	 * Describes a page of the list for templates.
+	 *
+	 * @param page
+	 * @return page attributes
+	 */
+	protected Map<String, Object> pageAttributes(Page<T> page) {
+		Map<String, Object> attributes = new HashMap<>();
+		attributes.put("number", page.getNumber());
+		attributes.put("displayNumber", page.getNumber() + 1);
+		attributes.put("size", page.getSize());
+		attributes.put("totalElements", page.getTotalElements());
+		attributes.put("totalPages", page.getTotalPages());
+		attributes.put("numberOfElements", page.getNumberOfElements());
+		attributes.put("first", page.isFirst());
+		attributes.put("last", page.isLast());
+		attributes.put("hasPrevious", page.hasPrevious());
+		attributes.put("hasNext", page.hasNext());
+		attributes.put("previous", Math.max(page.getNumber() - 1, 0));
+		attributes.put("next", page.getNumber() + 1);
+		page.getSort().stream().findFirst().ifPresent(order -> {
+			attributes.put("sortProperty", order.getProperty());
+			attributes.put("sortDirection", order.getDirection().name().toLowerCase());
+			attributes.put("sort", order.getProperty() + "," + order.getDirection().name().toLowerCase());
+		});
+		return attributes;
+	}
+
 	/**
 	 * Name displayed to the user in the UI.
 	 *
@@ -231,6 +1011,241 @@ public abstract class AbstractBaseEntityController<T extends AbstractEntity, U e
 				.toLowerCase();
 	}
 
+	private Set<String> getSortableProperties() {
+		if (sortableProperties == null) {
+			sortableProperties = Set.copyOf(sortableProperties());
+		}
+		return sortableProperties;
+	}
+
+	@SuppressWarnings("unchecked")
+	private PagingAndSortingRepository<T, Long> pagingRepository() {
+		if (getRepository() instanceof PagingAndSortingRepository<?, ?> repository) {
+			return (PagingAndSortingRepository<T, Long>) repository;
+		}
+		throw new IllegalStateException(
+				"Paginated lists require a PagingAndSortingRepository for " + this.entityName());
+	}
+
+	private void saveBatch(List<T> entities, List<Integer> indexes, BatchResult<T> result) {
+		if (indexes.isEmpty()) {
+			return;
+		}
+		List<T> batch = indexes.stream().map(entities::get).toList();
+		List<Long> ids = batch.stream().map(AbstractEntity::getId).toList();
+		List<Integer> versions = batch.stream().map(AbstractEntity::getVersion).toList();
+		List<T> saved = new ArrayList<>(batch.size());
+		try {
+			batchTransactionOperations()
+					.executeWithoutResult(status -> getRepository().saveAll(batch).forEach(saved::add));
+		} catch (OptimisticLockingFailureException | DataIntegrityViolationException
+				| UnexpectedRollbackException e) {
+			// persist assigns IDs to new entities even when the transaction rolls back
+			for (int i = 0; i < batch.size(); i++) {
+				batch.get(i).setId(ids.get(i));
+				batch.get(i).setVersion(versions.get(i));
+			}
+			if (indexes.size() == 1) {
+				if (e instanceof OptimisticLockingFailureException) {
+					result.addFailure(indexes.get(0), ids.get(0), BatchResult.Reason.CONFLICT,
+							this.entityName() + " was changed by another user.");
+				} else {
+					result.addFailure(indexes.get(0), ids.get(0), BatchResult.Reason.INVALID,
+							this.entityName() + " violates a data constraint.");
+				}
+				return;
+			}
+			int middle = indexes.size() / 2;
+			saveBatch(entities, indexes.subList(0, middle), result);
+			saveBatch(entities, indexes.subList(middle, indexes.size()), result);
+			return;
+		}
+
+		for (int i = 0; i < saved.size(); i++) {
+			invalidateCachedEntity(saved.get(i).getId());
+			result.addSucceeded(indexes.get(i), saved.get(i));
+		}
+	}
+
+	private void deleteBatch(List<Long> ids, List<Integer> indexes, BatchResult<Long> result) {
+		if (indexes.isEmpty()) {
+			return;
+		}
+		List<Long> batch = indexes.stream().map(ids::get).toList();
+		try {
+			batchTransactionOperations().executeWithoutResult(status -> deleteAllById(batch));
+		} catch (DataIntegrityViolationException | UnexpectedRollbackException e) {
+			if (indexes.size() == 1) {
+				result.addFailure(indexes.get(0), batch.get(0), BatchResult.Reason.IN_USE,
+						this.entityName() + " is in use and cannot be deleted.");
+				return;
+			}
+			int middle = indexes.size() / 2;
+			deleteBatch(ids, indexes.subList(0, middle), result);
+			deleteBatch(ids, indexes.subList(middle, indexes.size()), result);
+			return;
+		}
+
+		for (int i = 0; i < batch.size(); i++) {
+			invalidateCachedEntity(batch.get(i));
+			result.addSucceeded(indexes.get(i), batch.get(i));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void deleteAllById(List<Long> ids) {
+		if (getRepository() instanceof JpaRepository<?, ?> repository) {
+			((JpaRepository<T, Long>) repository).deleteAllByIdInBatch(ids);
+		} else {
+			getRepository().deleteAllById(ids);
+		}
+	}
+
+	private void invalidateCachedEntity(Long id) {
+		EntityReadCache<T> cache = entityReadCache();
+		if (cache != null && id != null) {
+			cache.invalidate(id);
+		}
+	}
+
+	private String renderConditionally(Map<String, Object> model, Long id, WebRequest webRequest,
+			Supplier<String> render) {
+		if (!conditionalGet() || hasFlashAttributes(webRequest)) {
+			return render.get();
+		}
+
+		if (conditionalGetVersionLookup()) {
+			Tuple stamp = versionStamp(id);
+			if (stamp != null && notModified(webRequest, id, stamp.get(0, Integer.class), stamp.get(1, Date.class))) {
+				return null;
+			}
+			return render.get();
+		}
+
+		String view = render.get();
+		if (model.get("entity") instanceof AbstractEntity entity
+				&& notModified(webRequest, entity.getId(), entity.getVersion(), entity.getUpdatedAt())) {
+			return null;
+		}
+		return view;
+	}
+
+	private boolean notModified(WebRequest webRequest, Long id, Integer version, Date updatedAt) {
+		if (version == null) {
+			return false;
+		}
+		if (webRequest instanceof NativeWebRequest nativeRequest) {
+			HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+			if (response != null && !response.containsHeader(HttpHeaders.CACHE_CONTROL)) {
+				response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+			}
+		}
+		String etag = "W/\"" + id + "-" + version + "-" + conditionalGetVariant(webRequest) + "\"";
+		return webRequest.checkNotModified(etag, updatedAt != null ? updatedAt.getTime() : -1);
+	}
+
+	private static boolean hasFlashAttributes(WebRequest webRequest) {
+		HttpServletRequest request = webRequest instanceof NativeWebRequest nativeRequest
+				? nativeRequest.getNativeRequest(HttpServletRequest.class)
+				: null;
+		Map<String, ?> flash = request != null ? RequestContextUtils.getInputFlashMap(request) : null;
+		return flash != null && !flash.isEmpty();
+	}
+
+	/**
+	 * Reads the version and update time of an entity without loading it.
+	 *
+	 * @param id
+	 * @return tuple of version and update time, or null if the entity does not exist
+	 */
+	private Tuple versionStamp(Long id) {
+		CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<T> root = query.from(domainClass());
+		query.multiselect(root.get("version"), root.get("updatedAt")).where(builder.equal(root.get("id"), id));
+		List<Tuple> result = getEntityManager().createQuery(query).getResultList();
+		return result.isEmpty() ? null : result.get(0);
+	}
+
+	/**
+	 * Reads the stored version of each of the given entities with a single query.
+	 *
+	 * @param ids
+	 * @return versions by ID, for the entities that exist
+	 */
+	private Map<Long, Integer> currentVersions(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return Map.of();
+		}
+		CriteriaBuilder builder = getEntityManager().getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<T> root = query.from(domainClass());
+		query.multiselect(root.get("id"), root.get("version")).where(root.get("id").in(ids));
+
+		Map<Long, Integer> versions = new HashMap<>();
+		for (Tuple tuple : getEntityManager().createQuery(query).getResultList()) {
+			versions.put(tuple.get(0, Long.class), tuple.get(1, Integer.class));
+		}
+		return versions;
+	}
+
+	private String validationErrors(T entity) {
+		Validator validator = validatorProvider != null ? validatorProvider.getIfAvailable() : null;
+		if (validator == null) {
+			return null;
+		}
+		Set<ConstraintViolation<T>> violations = validator.validate(entity);
+		if (violations.isEmpty()) {
+			return null;
+		}
+		return violations.stream()
+				.map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+				.sorted()
+				.collect(Collectors.joining("; "));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Specification<T> keysetPosition(Long after) {
+		if (after == null) {
+			return (root, query, builder) -> null;
+		}
+		String property = keysetSortProperty();
+		Comparable value = after;
+		if (!"id".equals(property)) {
+			T last = getRepository().findById(after).orElse(null);
+			if (last == null) {
+				return (root, query, builder) -> null;
+			}
+			value = (Comparable) new BeanWrapperImpl(last).getPropertyValue(property);
+		}
+		return Keyset.after(property, value, after, keysetSortDirection());
+	}
+
+	private List<String> getDataTableColumns() {
+		if (dataTableColumns == null) {
+			List<String> columns = List.copyOf(dataTableColumns());
+			if (columns.isEmpty()) {
+				throw new IllegalStateException(
+						"Server-side lists require dataTableColumns() to be overridden for " + this.entityName());
+			}
+			dataTableColumns = columns;
+		}
+		return dataTableColumns;
+	}
+
+	@SuppressWarnings("unchecked")
+	private JpaSpecificationExecutor<T> specificationRepository() {
+		if (getRepository() instanceof JpaSpecificationExecutor<?> repository) {
+			return (JpaSpecificationExecutor<T>) repository;
+		}
+		throw new IllegalStateException(
+				"Server-side tables require a JpaSpecificationExecutor for " + this.entityName());
+	}
+
+	private void addListAssets(Map<String, Object> model) {
+		ViewUtils.addPageAssets(model, LIST_ASSETS);
+	}
+
 	/**
 	 * Get the template folder. If the value has been previously cached, uses that value, otherwise calculates it.
 	 *
@@ -302,6 +1317,93 @@ public abstract class AbstractBaseEntityController<T extends AbstractEntity, U e
 		return "redirect:" + this.showRoute(id);
 	}
 
+	/**
+	 * Sets the entity manager used to read exports. Injected by Spring.
+	 *
+	 * @param entityManager
+	 *            shared entity manager
+	 */
+	@PersistenceContext
+	public void setEntityManager(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * @return the entity manager injected by Spring
+	 */
+	protected EntityManager getEntityManager() {
+		return entityManager;
+	}
+
+	/**
+	 * Sets the provider of the transaction manager used to run exports in a read-only transaction. Injected by Spring.
+	 *
+	 * @param transactionManagerProvider
+	 *            transaction manager provider
+	 */
+	@Autowired
+	public void setTransactionManagerProvider(ObjectProvider<PlatformTransactionManager> transactionManagerProvider) {
+		this.transactionManagerProvider = transactionManagerProvider;
+	}
+
+	/**
+	 * Transaction template used to read exports. Defaults to a read-only template on the application's transaction
+	 * manager.
+	 *
+	 * @return transaction operations
+	 * @throws IllegalStateException
+	 *             if there is no unique transaction manager
+	 */
+	protected TransactionOperations exportTransactionOperations() {
+		TransactionTemplate template = new TransactionTemplate(getTransactionManager());
+		template.setReadOnly(true);
+		return template;
+	}
+
+	/**
+	 * Transaction template used to run each batch of a batch operation. Defaults to a template on the application's
+	 * transaction manager.
+	 *
+	 * @return transaction operations
+	 * @throws IllegalStateException
+	 *             if there is no unique transaction manager
+	 */
+	protected TransactionOperations batchTransactionOperations() {
+		return new TransactionTemplate(getTransactionManager());
+	}
+
+	/**
+	 * Sets the provider of the validator used to validate the entities of batch operations. Injected by Spring.
+	 *
+	 * @param validatorProvider
+	 *            validator provider
+	 */
+	@Autowired
+	public void setValidatorProvider(ObjectProvider<Validator> validatorProvider) {
+		this.validatorProvider = validatorProvider;
+	}
+
+	/**
+	 * Sets the provider of the value converters used to format table values. Injected by Spring.
+	 *
+	 * @param valueConvertersProvider
+	 *            value converters provider
+	 */
+	@Autowired
+	public void setValueConvertersProvider(ObjectProvider<ValueConverters> valueConvertersProvider) {
+		this.valueConvertersProvider = valueConvertersProvider;
+	}
+
+	private PlatformTransactionManager getTransactionManager() {
+		PlatformTransactionManager transactionManager = transactionManagerProvider != null
+				? transactionManagerProvider.getIfUnique()
+				: null;
+		if (transactionManager == null) {
+			throw new IllegalStateException("A unique PlatformTransactionManager is required");
+		}
+		return transactionManager;
+	}
+
 	/**
 	 * Customizes data binding to trim strings and set the date format.
 	 *
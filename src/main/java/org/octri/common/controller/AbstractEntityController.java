@@ -1,14 +1,21 @@
 package org.octri.common.controller;
 
+import java.util.List;
 import java.util.Map;
 
 import org.octri.common.domain.AbstractEntity;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /**
@@ -24,14 +31,48 @@ public abstract class AbstractEntityController<T extends AbstractEntity, U exten
 
 	@GetMapping("/")
 	@Override
-	public String list(Map<String, Object> model) {
-		return super.list(model);
+	public String list(Map<String, Object> model, ListRequest listRequest) {
+		return super.list(model, listRequest);
+	}
+
+	@GetMapping("/data")
+	@ResponseBody
+	@Override
+	public ResponseEntity<DataTablesResponse> dataTable(@RequestParam Map<String, String> params) {
+		return super.dataTable(params);
+	}
+
+	@PostMapping("/batch")
+	@ResponseBody
+	@Override
+	public ResponseEntity<BatchResult<T>> createAll(@RequestBody List<T> entities) {
+		return super.createAll(entities);
+	}
+
+	@PostMapping("/batch/update")
+	@ResponseBody
+	@Override
+	public ResponseEntity<BatchResult<T>> updateAll(@RequestBody List<T> entities) {
+		return super.updateAll(entities);
+	}
+
+	@PostMapping("/batch/delete")
+	@ResponseBody
+	@Override
+	public ResponseEntity<BatchResult<Long>> deleteAll(@RequestBody List<Long> ids) {
+		return super.deleteAll(ids);
+	}
+
+	@GetMapping("/export")
+	@Override
+	public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format) {
+		return super.export(format);
 	}
 
 	@GetMapping("/{id}")
 	@Override
-	public String show(Map<String, Object> model, @PathVariable Long id) {
-		return super.show(model, id);
+	public String show(Map<String, Object> model, @PathVariable Long id, WebRequest webRequest) {
+		return super.show(model, id, webRequest);
 	}
 
 	@GetMapping("/new")
@@ -50,8 +91,8 @@ public abstract class AbstractEntityController<T extends AbstractEntity, U exten
 
 	@GetMapping("/{id}/edit")
 	@Override
-	public String edit(Map<String, Object> model, @PathVariable Long id) {
-		return super.edit(model, id);
+	public String edit(Map<String, Object> model, @PathVariable Long id, WebRequest webRequest) {
+		return super.edit(model, id, webRequest);
 	}
 
 	@PostMapping("/{id}/edit")
@@ -0,0 +1,108 @@
+package org.octri.common.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.octri.common.export.ExportJob;
+import org.octri.common.export.ExportJobService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Abstract class providing routes to check on, download and cancel background exports run by an
+ * {@link ExportJobService}. Extending controllers define the base route and submit jobs from their own handlers,
+ * typically redirecting to the job's status route.
+ */
+public abstract class AbstractExportJobController {
+
+	/**
+	 * Service running the export jobs. This should be autowired into the extending controller.
+	 *
+	 * @return export job service
+	 */
+	protected abstract ExportJobService getExportJobService();
+
+	/**
+	 * Reports the status and progress of a job.
+	 *
+	 * @param jobId
+	 *            job ID
+	 * @return job status, or 404 if the job does not exist or has expired
+	 */
+	@GetMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> status(@PathVariable String jobId) {
+		return getExportJobService().getJob(jobId)
+				.map(job -> ResponseEntity.ok(jobStatus(job)))
+				.orElse(ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Downloads the file of a completed job.
+	 *
+	 * @param jobId
+	 *            job ID
+	 * @return the export file, 404 if the job does not exist or has expired, or 409 if it has not completed
+	 */
+	@GetMapping("/{jobId}/download")
+	public ResponseEntity<Resource> download(@PathVariable String jobId) {
+		var job = getExportJobService().getJob(jobId);
+		if (job.isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+		if (!job.get().isCompleted()) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
+		var disposition = ContentDisposition.attachment().filename(job.get().getFileName()).build();
+		var response = ResponseEntity.ok()
+				.header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+				.contentType(MediaType.APPLICATION_OCTET_STREAM);
+		if (job.get().getContentEncoding() != null) {
+			response.header(HttpHeaders.CONTENT_ENCODING, job.get().getContentEncoding());
+		}
+		return response.body(new FileSystemResource(job.get().getFile()));
+	}
+
+	/**
+	 * Cancels a job that has not finished.
+	 *
+	 * @param jobId
+	 *            job ID
+	 * @return job status, or 404 if the job does not exist or has expired
+	 */
+	@PostMapping(value = "/{jobId}/cancel", produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public ResponseEntity<Map<String, Object>> cancel(@PathVariable String jobId) {
+		getExportJobService().cancel(jobId);
+		return status(jobId);
+	}
+
+	/**
+	 * Builds the status representation of a job.
+	 *
+	 * @param job
+	 * @return map of status properties
+	 */
+	protected Map<String, Object> jobStatus(ExportJob job) {
+		Map<String, Object> status = new LinkedHashMap<>();
+		status.put("id", job.getId());
+		status.put("fileName", job.getFileName());
+		status.put("status", job.getStatus().name());
+		status.put("rowsWritten", job.getRowsWritten());
+		status.put("totalRows", job.getTotalRows());
+		status.put("bytesWritten", job.getBytesWritten());
+		status.put("createdAt", job.getCreatedAt().toString());
+		status.put("completedAt", job.getCompletedAt() != null ? job.getCompletedAt().toString() : null);
+		status.put("errorMessage", job.getErrorMessage());
+		return status;
+	}
+}
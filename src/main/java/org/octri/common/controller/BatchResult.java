@@ -0,0 +1,101 @@
+package org.octri.common.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a batch operation. Items that could not be processed are reported individually, so one bad item does not
+ * abort the rest of the batch.
+ *
+ * @param <R>
+ *            type of the items that succeeded
+ */
+public class BatchResult<R> {
+
+	/**
+	 * Why an item of a batch failed.
+	 */
+	public enum Reason {
+		/**
+		 * The item failed validation.
+		 */
+		INVALID,
+		/**
+		 * The item was changed by someone else since it was read.
+		 */
+		CONFLICT,
+		/**
+		 * The item does not exist.
+		 */
+		NOT_FOUND,
+		/**
+		 * The item is referenced by other data.
+		 */
+		IN_USE
+	}
+
+	/**
+	 * An item of the batch that failed.
+	 *
+	 * @param index
+	 *            - position of the item in the batch
+	 * @param id
+	 *            - ID of the item, if it has one
+	 * @param reason
+	 *            - why the item failed
+	 * @param message
+	 *            - description of the failure
+	 */
+	public record Failure(int index, Long id, Reason reason, String message) {
+	}
+
+	/**
+	 * An item of the batch that was processed.
+	 *
+	 * @param <R>
+	 *            type of the item
+	 * @param index
+	 *            - position of the item in the batch
+	 * @param item
+	 *            - the processed item, such as the saved entity
+	 */
+	public record Success<R>(int index, R item) {
+	}
+
+	private final List<Success<R>> succeeded = new ArrayList<>();
+	private final List<Failure> failed = new ArrayList<>();
+
+	/**
+	 * @return items that were processed, in batch order
+	 */
+	public List<Success<R>> getSucceeded() {
+		List<Success<R>> sorted = new ArrayList<>(succeeded);
+		sorted.sort((a, b) -> Integer.compare(a.index(), b.index()));
+		return Collections.unmodifiableList(sorted);
+	}
+
+	/**
+	 * @return items that failed, in batch order
+	 */
+	public List<Failure> getFailed() {
+		List<Failure> sorted = new ArrayList<>(failed);
+		sorted.sort((a, b) -> Integer.compare(a.index(), b.index()));
+		return Collections.unmodifiableList(sorted);
+	}
+
+	/**
+	 * @return true if every item was processed
+	 */
+	public boolean isSuccess() {
+		return failed.isEmpty();
+	}
+
+	void addSucceeded(int index, R item) {
+		succeeded.add(new Success<>(index, item));
+	}
+
+	void addFailure(int index, Long id, Reason reason, String message) {
+		failed.add(new Failure(index, id, reason, message));
+	}
+}
@@ -0,0 +1,170 @@
+package org.octri.common.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Parameters of a DataTables server-side processing request.
+ *
+ * @see <a href="https://datatables.net/manual/server-side">https://datatables.net/manual/server-side</a>
+ */
+public class DataTablesRequest {
+
+	/**
+	 * A column sent by DataTables.
+	 *
+	 * @param data
+	 *            - property name of the column
+	 * @param searchable
+	 *            - whether the column is included in the global search
+	 * @param orderable
+	 *            - whether the table may be sorted by the column
+	 */
+	public record Column(String data, boolean searchable, boolean orderable) {
+	}
+
+	/**
+	 * A sort column sent by DataTables.
+	 *
+	 * @param column
+	 *            - index of the column
+	 * @param direction
+	 *            - sort direction
+	 */
+	public record Order(int column, Sort.Direction direction) {
+	}
+
+	private final int draw;
+	private final int start;
+	private final int length;
+	private final String search;
+	private final List<Column> columns;
+	private final List<Order> orders;
+
+	private DataTablesRequest(int draw, int start, int length, String search, List<Column> columns,
+			List<Order> orders) {
+		this.draw = draw;
+		this.start = start;
+		this.length = length;
+		this.search = search;
+		this.columns = columns;
+		this.orders = orders;
+	}
+
+	/**
+	 * Parses the request parameters sent by DataTables.
+	 *
+	 * @param params
+	 *            - request parameters
+	 * @return the parsed request
+	 */
+	public static DataTablesRequest of(Map<String, String> params) {
+		List<Column> columns = new ArrayList<>();
+		for (int i = 0; params.containsKey("columns[" + i + "][data]"); i++) {
+			String prefix = "columns[" + i + "]";
+			columns.add(new Column(params.get(prefix + "[data]"),
+					!"false".equals(params.get(prefix + "[searchable]")),
+					!"false".equals(params.get(prefix + "[orderable]"))));
+		}
+
+		List<Order> orders = new ArrayList<>();
+		for (int i = 0; params.containsKey("order[" + i + "][column]"); i++) {
+			String prefix = "order[" + i + "]";
+			orders.add(new Order(parseInt(params.get(prefix + "[column]"), -1),
+					Sort.Direction.fromOptionalString(params.get(prefix + "[dir]")).orElse(Sort.Direction.ASC)));
+		}
+
+		return new DataTablesRequest(parseInt(params.get("draw"), 0), parseInt(params.get("start"), 0),
+				parseInt(params.get("length"), -1), params.get("search[value]"), columns, orders);
+	}
+
+	/**
+	 * @return request counter, echoed in the response
+	 */
+	public int getDraw() {
+		return draw;
+	}
+
+	/**
+	 * @return index of the first row requested
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * @return number of rows requested, or -1 for all rows
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @return global search term, or null
+	 */
+	public String getSearch() {
+		return search;
+	}
+
+	public List<Column> getColumns() {
+		return columns;
+	}
+
+	public List<Order> getOrders() {
+		return orders;
+	}
+
+	/**
+	 * @return property names of the searchable columns
+	 */
+	public List<String> getSearchableColumns() {
+		return columns.stream().filter(Column::searchable).map(Column::data).toList();
+	}
+
+	/**
+	 * Converts the requested rows and order to a page request. Requests for all rows, or more rows than the maximum,
+	 * are limited to the maximum. Columns that are not orderable or not in the set of sortable properties are ignored.
+	 *
+	 * @param maxSize
+	 *            - largest number of rows returned
+	 * @param sortableProperties
+	 *            - properties that may be sorted by
+	 * @param defaultSort
+	 *            - sort used when no allowed order is requested
+	 * @return the page request
+	 */
+	public Pageable toPageable(int maxSize, Set<String> sortableProperties, Sort defaultSort) {
+		int size = length > 0 ? Math.min(length, maxSize) : maxSize;
+		int page = Math.max(start, 0) / size;
+
+		List<Sort.Order> sortOrders = new ArrayList<>();
+		for (Order order : orders) {
+			if (order.column() < 0 || order.column() >= columns.size()) {
+				continue;
+			}
+			Column column = columns.get(order.column());
+			if (column.orderable() && sortableProperties.contains(column.data())) {
+				sortOrders.add(new Sort.Order(order.direction(), column.data()));
+			}
+		}
+		Sort sort = sortOrders.isEmpty() ? defaultSort : Sort.by(sortOrders);
+		return PageRequest.of(page, size, sort);
+	}
+
+	private static int parseInt(String value, int defaultValue) {
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package org.octri.common.controller;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response to a DataTables server-side processing request, serialized as JSON.
+ *
+ * @param draw
+ *            - request counter echoed from the request
+ * @param recordsTotal
+ *            - number of entities before filtering
+ * @param recordsFiltered
+ *            - number of entities matching the search
+ * @param data
+ *            - rows of the requested page, keyed by column
+ */
+public record DataTablesResponse(int draw, long recordsTotal, long recordsFiltered, List<Map<String, Object>> data) {
+}
@@ -0,0 +1,171 @@
+package org.octri.common.controller;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+import org.octri.common.domain.AbstractEntity;
+
+/**
+ * Size-bounded cache of entities read by an entity controller's details and edit pages. Entries are evicted when they
+ * are the least recently used entry of a full cache, or when they are older than the time to live. A cached entity is
+ * only returned if its version matches the version stored in the database, so updates made outside the controller are
+ * never served from the cache.
+ *
+ * <p>
+ * The cache never hands out the entity it stores. Entities are copied when they are cached and again when they are
+ * read, with the copy function given to the constructor, so a request that modifies the entity it was given does not
+ * change what other requests see. The copy function creates a new instance holding the state the pages read. It must
+ * not copy associations that have not been loaded, which would fail once the session that loaded the entity has
+ * ended; check them with {@link org.hibernate.Hibernate#isInitialized(Object)} and leave them out, or copy their IDs.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * private final EntityReadCache&lt;Participant&gt; cache = new EntityReadCache&lt;&gt;(500, Duration.ofMinutes(5),
+ * 		participant -&gt; new Participant(participant));
+ *
+ * &#64;Override
+ * protected EntityReadCache&lt;Participant&gt; entityReadCache() {
+ * 	return cache;
+ * }
+ * </pre>
+ *
+ * @param <T>
+ *            entity type
+ */
+public class EntityReadCache<T extends AbstractEntity> {
+
+	private final int maxSize;
+	private final long ttlNanos;
+	private final UnaryOperator<T> copier;
+	private final LongSupplier clock;
+	private final Map<Long, Entry<T>> entries;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	private record Entry<T>(T entity, Integer version, long createdAt) {
+	}
+
+	/**
+	 * Constructs a cache.
+	 *
+	 * @param maxSize
+	 *            - maximum number of cached entities
+	 * @param ttl
+	 *            - time after which a cached entity is reloaded even if its version has not changed
+	 * @param copier
+	 *            - creates an independent copy of an entity, including its ID and version
+	 */
+	public EntityReadCache(int maxSize, Duration ttl, UnaryOperator<T> copier) {
+		this(maxSize, ttl, copier, System::nanoTime);
+	}
+
+	EntityReadCache(int maxSize, Duration ttl, UnaryOperator<T> copier, LongSupplier clock) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Cache size must be positive");
+		}
+		this.maxSize = maxSize;
+		this.ttlNanos = ttl.toNanos();
+		this.copier = copier;
+		this.clock = clock;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Entry<T>> eldest) {
+				return size() > EntityReadCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Gets a cached entity if it is current. Entries that have expired or whose version differs from the current
+	 * version are removed.
+	 *
+	 * @param id
+	 *            - entity ID
+	 * @param currentVersion
+	 *            - version stored in the database, or null if the entity does not exist
+	 * @return a copy of the cached entity, or null if it is not cached or not current
+	 */
+	public synchronized T get(Long id, Integer currentVersion) {
+		Entry<T> entry = entries.get(id);
+		if (entry == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		if (currentVersion == null || !currentVersion.equals(entry.version())
+				|| clock.getAsLong() - entry.createdAt() >= ttlNanos) {
+			entries.remove(id);
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		return copier.apply(entry.entity());
+	}
+
+	/**
+	 * Caches a copy of an entity at its current version. Entities without an ID or version are not cached.
+	 *
+	 * @param entity
+	 *            - entity to cache
+	 */
+	public synchronized void put(T entity) {
+		if (entity.getId() != null && entity.getVersion() != null) {
+			entries.put(entity.getId(), new Entry<>(copier.apply(entity), entity.getVersion(), clock.getAsLong()));
+		}
+	}
+
+	/**
+	 * Removes an entity from the cache.
+	 *
+	 * @param id
+	 *            - entity ID
+	 */
+	public synchronized void invalidate(Long id) {
+		entries.remove(id);
+	}
+
+	/**
+	 * Removes all entities from the cache.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * @return number of cached entities
+	 */
+	public synchronized int getSize() {
+		return entries.size();
+	}
+
+	/**
+	 * @return number of lookups served from the cache
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return number of lookups that loaded the entity
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return share of lookups served from the cache, between 0 and 1
+	 */
+	public double getHitRate() {
+		long total = hits.get() + misses.get();
+		return total == 0 ? 0 : (double) hits.get() / total;
+	}
+}
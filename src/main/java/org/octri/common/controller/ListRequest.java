@@ -0,0 +1,97 @@
+package org.octri.common.controller;
+
+import java.util.Set;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Paging and sorting parameters of a list request, bound from the {@code page}, {@code size}, {@code sort} and
+ * {@code after} query parameters. The page number is zero-based, and the sort parameter has the form {@code property}
+ * or {@code property,direction}, as in Spring Data. For keyset pagination, {@code after} is the ID of the last entity
+ * of the previous page.
+ */
+public class ListRequest {
+
+	private Integer page;
+	private Integer size;
+	private String sort;
+	private Long after;
+
+	public Integer getPage() {
+		return page;
+	}
+
+	public void setPage(Integer page) {
+		this.page = page;
+	}
+
+	public Integer getSize() {
+		return size;
+	}
+
+	public void setSize(Integer size) {
+		this.size = size;
+	}
+
+	public String getSort() {
+		return sort;
+	}
+
+	public void setSort(String sort) {
+		this.sort = sort;
+	}
+
+	public Long getAfter() {
+		return after;
+	}
+
+	public void setAfter(Long after) {
+		this.after = after;
+	}
+
+	/**
+	 * Converts the request to a page request with safe values. Missing or invalid page numbers select the first page,
+	 * sizes are limited to the maximum, and sorting by a property that is not allowed falls back to the default sort.
+	 *
+	 * @param defaultSize
+	 *            - page size used when no size is requested
+	 * @param maxSize
+	 *            - largest page size allowed
+	 * @param sortableProperties
+	 *            - properties that may be sorted by
+	 * @param defaultSort
+	 *            - sort used when no allowed sort is requested
+	 * @return the page request
+	 */
+	public Pageable toPageable(int defaultSize, int maxSize, Set<String> sortableProperties, Sort defaultSort) {
+		int pageNumber = page != null && page >= 0 ? page : 0;
+		int pageSize = size != null && size > 0 ? Math.min(size, maxSize) : defaultSize;
+		return PageRequest.of(pageNumber, pageSize, toSort(sortableProperties, defaultSort));
+	}
+
+	/**
+	 * Parses the sort parameter.
+	 *
+	 * @param sortableProperties
+	 *            - properties that may be sorted by
+	 * @param defaultSort
+	 *            - sort used when no allowed sort is requested
+	 * @return the requested sort, or the default sort
+	 */
+	public Sort toSort(Set<String> sortableProperties, Sort defaultSort) {
+		if (sort == null || sort.isBlank()) {
+			return defaultSort;
+		}
+		String[] parts = sort.split(",");
+		String property = parts[0].trim();
+		if (!sortableProperties.contains(property)) {
+			return defaultSort;
+		}
+		Sort.Direction direction = parts.length > 1
+				? Sort.Direction.fromOptionalString(parts[1].trim()).orElse(Sort.Direction.ASC)
+				: Sort.Direction.ASC;
+		return Sort.by(direction, property);
+	}
+}
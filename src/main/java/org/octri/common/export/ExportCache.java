@@ -0,0 +1,394 @@
+package org.octri.common.export;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.octri.common.domain.AbstractEntity;
+import org.octri.common.view.Exporter;
+import org.octri.common.view.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Caches generated export files on local disk, so repeated exports of unchanged data are served without regenerating
+ * them. Files are keyed by the export name, the exporter and a fingerprint of the exported data, such as the one
+ * computed by {@link #fingerprint(EntityManager, Class)}. When a table changes, its fingerprint changes and the next
+ * export generates a new file. The least recently used files are deleted when the cache exceeds its maximum size.
+ *
+ * <p>
+ * The cache key is only the export name, the exporter and the fingerprint: the cache does not know who requested an
+ * export or how its rows were selected. Any file is served to every caller that asks for the same name and
+ * fingerprint. Callers whose exports depend on the current user, their permissions or a filter must include that scope
+ * in the name or the fingerprint, for example {@code "Participants:" + username}. Exporters whose
+ * {@link Exporter#getConfigurationKey()} is null are never cached; their exports are generated for every request.
+ * </p>
+ *
+ * <p>
+ * Cached files are sent with {@link FileChannel#transferTo(long, long, WritableByteChannel)}. When the target is a
+ * file or socket channel, or a {@link FileOutputStream}, the operating system copies file contents to the target
+ * without passing them through the heap. Other targets, such as servlet output streams, are written through a buffer.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * String fingerprint = ExportCache.fingerprint(entityManager, Participant.class);
+ * // every user may export all participants, so the name needs no user scope
+ * exportCache.export("Participants", fingerprint, exporter,
+ * 		() -&gt; List.of(new ReflectiveTable&lt;&gt;("Participants", Participant.class, repository.findAll())),
+ * 		response.getOutputStream());
+ * </pre>
+ */
+public class ExportCache implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(ExportCache.class);
+	private static final String FILE_PREFIX = "export-cache-";
+
+	private final Path directory;
+	private final long maxSize;
+	private final Map<String, Path> files = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<String, CompletableFuture<Path>> pending = new ConcurrentHashMap<>();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private long size = 0;
+
+	/**
+	 * Constructs a cache that stores files in the given directory. Files left in the directory by a previous cache are
+	 * deleted.
+	 *
+	 * @param directory
+	 *            - directory cached files are stored in
+	 * @param maxSize
+	 *            - maximum total size in bytes of the cached files
+	 */
+	public ExportCache(Path directory, long maxSize) {
+		this.directory = directory;
+		this.maxSize = maxSize;
+		try {
+			Files.createDirectories(directory);
+			try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+				for (Path file : stale) {
+					Files.deleteIfExists(file);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not prepare export cache directory " + directory, e);
+		}
+	}
+
+	/**
+	 * Computes a fingerprint from the number of rows in a table and the time the table was last updated.
+	 *
+	 * @param count
+	 *            - number of rows
+	 * @param lastUpdated
+	 *            - latest update timestamp, or null if unknown
+	 * @return fingerprint
+	 */
+	public static String fingerprint(long count, Date lastUpdated) {
+		return count + "-" + (lastUpdated != null ? lastUpdated.getTime() : 0);
+	}
+
+	/**
+	 * Computes a fingerprint for an entity table from its entity count and the latest
+	 * {@link AbstractEntity#getUpdatedAt()}, using a single aggregate query. Inserts and updates change the latest
+	 * update time, and deletes change the count.
+	 *
+	 * @param entityManager
+	 * @param entityClass
+	 * @return fingerprint
+	 */
+	public static String fingerprint(EntityManager entityManager, Class<? extends AbstractEntity> entityClass) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Object[]> query = builder.createQuery(Object[].class);
+		Root<? extends AbstractEntity> root = query.from(entityClass);
+		query.multiselect(builder.count(root), builder.greatest(root.<Date> get("updatedAt")));
+		Object[] result = entityManager.createQuery(query).getSingleResult();
+		return fingerprint((Long) result[0], (Date) result[1]);
+	}
+
+	/**
+	 * Writes the export to the channel, generating and caching it if there is no cached file for the fingerprint. The
+	 * channel is not closed. Exports whose exporter has a null {@link Exporter#getConfigurationKey()} are generated
+	 * directly to the channel without being cached.
+	 *
+	 * @param name
+	 *            - export name
+	 * @param fingerprint
+	 *            - fingerprint of the exported data
+	 * @param exporter
+	 *            - exporter that generates the file
+	 * @param tables
+	 *            - supplier of the tables, only called when the file is generated
+	 * @param target
+	 *            - channel the export is written to
+	 * @throws IOException
+	 */
+	public void export(String name, String fingerprint, Exporter exporter, Supplier<List<Table>> tables,
+			WritableByteChannel target) throws IOException {
+		if (exporter.getConfigurationKey() == null) {
+			misses.incrementAndGet();
+			exportUncached(exporter, tables, target);
+			return;
+		}
+		for (int attempt = 0;; attempt++) {
+			Path file = get(name, fingerprint, exporter, tables);
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				long position = 0;
+				long count = channel.size();
+				while (position < count) {
+					position += channel.transferTo(position, count - position, target);
+				}
+				return;
+			} catch (NoSuchFileException e) {
+				// evicted before it could be opened
+				if (attempt > 0) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the export to the output stream, generating and caching it if there is no cached file for the
+	 * fingerprint. A {@link FileOutputStream} is written through its channel; other streams are written through a
+	 * buffer. The stream is not closed.
+	 *
+	 * @param name
+	 *            - export name
+	 * @param fingerprint
+	 *            - fingerprint of the exported data
+	 * @param exporter
+	 *            - exporter that generates the file
+	 * @param tables
+	 *            - supplier of the tables, only called when the file is generated
+	 * @param outputStream
+	 *            - stream the export is written to
+	 * @throws IOException
+	 */
+	public void export(String name, String fingerprint, Exporter exporter, Supplier<List<Table>> tables,
+			OutputStream outputStream) throws IOException {
+		if (outputStream instanceof FileOutputStream fileOutputStream) {
+			export(name, fingerprint, exporter, tables, fileOutputStream.getChannel());
+			return;
+		}
+		export(name, fingerprint, exporter, tables, Channels.newChannel(outputStream));
+		outputStream.flush();
+	}
+
+	/**
+	 * Gets the cached file for the export, generating it if there is no cached file for the fingerprint. Files are
+	 * cached separately for exporters whose {@link Exporter#getConfigurationKey()} differs. Concurrent requests for the
+	 * same export wait for a single file to be generated.
+	 *
+	 * @param name
+	 *            - export name
+	 * @param fingerprint
+	 *            - fingerprint of the exported data
+	 * @param exporter
+	 *            - exporter that generates the file
+	 * @param tables
+	 *            - supplier of the tables, only called when the file is generated
+	 * @return path of the cached file
+	 * @throws IOException
+	 * @throws IllegalArgumentException
+	 *             if the exporter's configuration key is null, so its output cannot be cached
+	 */
+	public Path get(String name, String fingerprint, Exporter exporter, Supplier<List<Table>> tables)
+			throws IOException {
+		if (exporter.getConfigurationKey() == null) {
+			throw new IllegalArgumentException(
+					"Exports of " + exporter.getClass().getName() + " cannot be cached with this configuration");
+		}
+		String key = name + "\n" + exporter.getClass().getName() + "\n" + exporter.getFileSuffix() + "\n"
+				+ exporter.getConfigurationKey() + "\n" + fingerprint;
+		Path cached = lookup(key);
+		if (cached != null) {
+			hits.incrementAndGet();
+			return cached;
+		}
+
+		CompletableFuture<Path> created = new CompletableFuture<>();
+		CompletableFuture<Path> existing = pending.putIfAbsent(key, created);
+		if (existing != null) {
+			hits.incrementAndGet();
+			return await(existing);
+		}
+
+		try {
+			cached = lookup(key);
+			if (cached == null) {
+				misses.incrementAndGet();
+				cached = generate(key, exporter, tables);
+			} else {
+				hits.incrementAndGet();
+			}
+			created.complete(cached);
+			return cached;
+		} catch (IOException | RuntimeException e) {
+			created.completeExceptionally(e);
+			throw e;
+		} finally {
+			pending.remove(key);
+		}
+	}
+
+	/**
+	 * @return number of exports served from a cached file
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return number of exports that generated a new file
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return share of exports served from a cached file, between 0 and 1
+	 */
+	public double getHitRate() {
+		long total = hits.get() + misses.get();
+		return total == 0 ? 0 : (double) hits.get() / total;
+	}
+
+	/**
+	 * @return total size in bytes of the cached files
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Deletes all cached files.
+	 */
+	public synchronized void clear() {
+		for (Path file : files.values()) {
+			delete(file);
+		}
+		files.clear();
+		size = 0;
+	}
+
+	@Override
+	public void close() {
+		clear();
+	}
+
+	private synchronized Path lookup(String key) {
+		return files.get(key);
+	}
+
+	private static void exportUncached(Exporter exporter, Supplier<List<Table>> tables, WritableByteChannel target)
+			throws IOException {
+		// exporters close their stream, which must not close the caller's channel
+		OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(target)) {
+			@Override
+			public void close() throws IOException {
+				flush();
+			}
+		};
+		exporter.export(outputStream, tables.get());
+		outputStream.flush();
+	}
+
+	private Path generate(String key, Exporter exporter, Supplier<List<Table>> tables) throws IOException {
+		Path file = directory.resolve(FILE_PREFIX
+				+ UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + exporter.getFileSuffix());
+		Path temp = Files.createTempFile(directory, "export", ".tmp");
+		try {
+			try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(temp))) {
+				exporter.export(outputStream, tables.get());
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			delete(temp);
+			throw e;
+		}
+
+		add(key, file, Files.size(file));
+		return file;
+	}
+
+	private synchronized void add(String key, Path file, long fileSize) {
+		files.put(key, file);
+		size += fileSize;
+
+		// evict least recently used files, but never the file just added
+		Iterator<Map.Entry<String, Path>> eldest = files.entrySet().iterator();
+		while (size > maxSize && files.size() > 1) {
+			Map.Entry<String, Path> entry = eldest.next();
+			if (entry.getKey().equals(key)) {
+				continue;
+			}
+			size -= fileSize(entry.getValue());
+			delete(entry.getValue());
+			eldest.remove();
+			log.debug("Evicted cached export {}", entry.getValue());
+		}
+	}
+
+	private static Path await(CompletableFuture<Path> future) throws IOException {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof IOException cause) {
+				throw cause;
+			} else if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private static long fileSize(Path file) {
+		try {
+			return Files.size(file);
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private static void delete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			log.warn("Could not delete cached export {}", file, e);
+			file.toFile().deleteOnExit();
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package org.octri.common.export;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An export running in the background. Tracks the job's status and progress, and the file the export is written to.
+ * Jobs are created by {@link ExportJobService}.
+ */
+public class ExportJob {
+
+	/**
+	 * The lifecycle of an export job.
+	 */
+	public enum Status {
+		QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+	}
+
+	private final String id;
+	private final String fileName;
+	private final Path file;
+	private final String contentEncoding;
+	private final Instant createdAt = Instant.now();
+	private final AtomicLong rowsWritten = new AtomicLong();
+	private final AtomicLong bytesWritten = new AtomicLong();
+	private final CountDownLatch done = new CountDownLatch(1);
+
+	private volatile Status status = Status.QUEUED;
+	private volatile Long totalRows;
+	private volatile Instant completedAt;
+	private volatile String errorMessage;
+	private volatile Future<?> future;
+
+	ExportJob(String id, String fileName, Path file, String contentEncoding) {
+		this.id = id;
+		this.fileName = fileName;
+		this.file = file;
+		this.contentEncoding = contentEncoding;
+	}
+
+	/**
+	 * @return unique identifier of the job
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return name of the file offered for download
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * @return path of the file the export is written to
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * @return value of the Content-Encoding header to send with the file, or null
+	 */
+	public String getContentEncoding() {
+		return contentEncoding;
+	}
+
+	/**
+	 * @return current status
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return number of rows written so far
+	 */
+	public long getRowsWritten() {
+		return rowsWritten.get();
+	}
+
+	/**
+	 * @return number of bytes written so far
+	 */
+	public long getBytesWritten() {
+		return bytesWritten.get();
+	}
+
+	/**
+	 * @return total number of rows to be written, or null if the tables do not report it
+	 */
+	public Long getTotalRows() {
+		return totalRows;
+	}
+
+	/**
+	 * @return time the job was submitted
+	 */
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	/**
+	 * @return time the job completed, failed or was cancelled, or null if it has not finished
+	 */
+	public Instant getCompletedAt() {
+		return completedAt;
+	}
+
+	/**
+	 * @return message describing why the job failed, or null
+	 */
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * @return whether the job has completed, failed or been cancelled
+	 */
+	public boolean isDone() {
+		return done.getCount() == 0;
+	}
+
+	/**
+	 * @return whether the export file is ready to download
+	 */
+	public boolean isCompleted() {
+		return status == Status.COMPLETED;
+	}
+
+	/**
+	 * @return whether the job has been cancelled
+	 */
+	public boolean isCancelled() {
+		return status == Status.CANCELLED;
+	}
+
+	/**
+	 * Waits for the job to finish.
+	 *
+	 * @param timeout
+	 * @param unit
+	 * @return true if the job finished, false if the timeout elapsed first
+	 * @throws InterruptedException
+	 */
+	public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+		return done.await(timeout, unit);
+	}
+
+	void setTotalRows(Long totalRows) {
+		this.totalRows = totalRows;
+	}
+
+	void setFuture(Future<?> future) {
+		this.future = future;
+	}
+
+	void addRows(long count) {
+		rowsWritten.addAndGet(count);
+	}
+
+	void addBytes(long count) {
+		bytesWritten.addAndGet(count);
+	}
+
+	synchronized boolean start() {
+		if (status != Status.QUEUED) {
+			return false;
+		}
+		status = Status.RUNNING;
+		return true;
+	}
+
+	synchronized void complete() {
+		finish(Status.COMPLETED);
+	}
+
+	synchronized void fail(Throwable error) {
+		if (finish(Status.FAILED)) {
+			errorMessage = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+		}
+	}
+
+	synchronized boolean cancel() {
+		if (!finish(Status.CANCELLED)) {
+			return false;
+		}
+		if (future != null) {
+			future.cancel(true);
+		}
+		return true;
+	}
+
+	private boolean finish(Status finalStatus) {
+		if (isDone()) {
+			return false;
+		}
+		status = finalStatus;
+		completedAt = Instant.now();
+		done.countDown();
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "ExportJob [id=" + id + ", fileName=" + fileName + ", status=" + status + ", rowsWritten="
+				+ rowsWritten + ", bytesWritten=" + bytesWritten + "]";
+	}
+}
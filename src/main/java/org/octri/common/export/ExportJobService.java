@@ -0,0 +1,317 @@
+package org.octri.common.export;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.octri.common.view.Exporter;
+import org.octri.common.view.Table;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Runs exports in the background so that large exports do not tie up request threads. Each job writes its export to a
+ * file in a working directory, tracks its progress, and can be cancelled. Finished jobs and their files are removed
+ * once they are older than the retention period.
+ *
+ * <p>
+ * Tables are requested from the supplier on the worker thread. Tables backed by repository streams must be read inside
+ * a transaction; use {@link #setTransactionOperations(TransactionOperations)} to run each job in one.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * ExportJob job = exportJobService.submit("Participants", ExcelExporter.streaming(),
+ * 		() -&gt; List.of(new ReflectiveTable&lt;&gt;("Participants", Participant.class, repository.streamAll())));
+ * </pre>
+ */
+public class ExportJobService implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(ExportJobService.class);
+
+	private final ExecutorService executor;
+	private final Path directory;
+	private final Duration retention;
+	private final ScheduledExecutorService cleaner;
+	private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+	private TransactionOperations transactionOperations;
+
+	/**
+	 * Constructs a service that runs jobs on a fixed number of threads. Jobs submitted when all threads are busy and
+	 * the queue is full are rejected.
+	 *
+	 * @param threads
+	 *            - number of jobs that run at the same time
+	 * @param queueCapacity
+	 *            - number of jobs that may wait for a thread
+	 * @param directory
+	 *            - directory export files are written to
+	 * @param retention
+	 *            - how long finished jobs and their files are kept
+	 */
+	public ExportJobService(int threads, int queueCapacity, Path directory, Duration retention) {
+		this(new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity)), directory, retention);
+	}
+
+	/**
+	 * Constructs a service that runs jobs on the given executor. The executor is shut down when the service is closed.
+	 *
+	 * @param executor
+	 *            - executor jobs run on
+	 * @param directory
+	 *            - directory export files are written to
+	 * @param retention
+	 *            - how long finished jobs and their files are kept
+	 */
+	public ExportJobService(ExecutorService executor, Path directory, Duration retention) {
+		this.executor = executor;
+		this.directory = directory;
+		this.retention = retention;
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not create export directory " + directory, e);
+		}
+
+		this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "export-job-cleaner");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1000L, retention.toMillis() / 4);
+		cleaner.scheduleAtFixedRate(this::purgeExpired, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Sets the transaction template used to run each job in a transaction, so tables backed by repository streams can
+	 * be read. A read-only template is recommended.
+	 *
+	 * @param transactionOperations
+	 *            - transaction template, or null to run jobs without a transaction
+	 */
+	public void setTransactionOperations(TransactionOperations transactionOperations) {
+		this.transactionOperations = transactionOperations;
+	}
+
+	/**
+	 * Submits an export of a single table.
+	 *
+	 * @param name
+	 *            - name used to build the download file name
+	 * @param exporter
+	 *            - exporter that writes the file
+	 * @param table
+	 *            - supplier of the table, called on the worker thread
+	 * @return the queued job
+	 * @throws RejectedExecutionException
+	 *             if the service is at capacity
+	 */
+	public ExportJob submitTable(String name, Exporter exporter, Supplier<Table> table) {
+		return submit(name, exporter, () -> List.of(table.get()));
+	}
+
+	/**
+	 * Submits an export of one or more tables.
+	 *
+	 * @param name
+	 *            - name used to build the download file name
+	 * @param exporter
+	 *            - exporter that writes the file
+	 * @param tables
+	 *            - supplier of the tables, called on the worker thread
+	 * @return the queued job
+	 * @throws RejectedExecutionException
+	 *             if the service is at capacity
+	 */
+	public ExportJob submit(String name, Exporter exporter, Supplier<List<Table>> tables) {
+		String id = UUID.randomUUID().toString();
+		ExportJob job = new ExportJob(id, exporter.outputFileName(name),
+				directory.resolve(id + exporter.getFileSuffix()), exporter.getContentEncoding());
+		jobs.put(id, job);
+		try {
+			job.setFuture(executor.submit(() -> run(job, exporter, tables)));
+		} catch (RejectedExecutionException e) {
+			jobs.remove(id);
+			throw e;
+		}
+		log.debug("Submitted export job {}", job);
+		return job;
+	}
+
+	/**
+	 * Gets a job by ID.
+	 *
+	 * @param id
+	 * @return the job, or empty if it does not exist or has expired
+	 */
+	public Optional<ExportJob> getJob(String id) {
+		return Optional.ofNullable(jobs.get(id));
+	}
+
+	/**
+	 * @return all jobs that have not expired
+	 */
+	public Collection<ExportJob> getJobs() {
+		return List.copyOf(jobs.values());
+	}
+
+	/**
+	 * Cancels a job that has not finished and deletes its file.
+	 *
+	 * @param id
+	 * @return true if the job was cancelled, false if it does not exist or had already finished
+	 */
+	public boolean cancel(String id) {
+		ExportJob job = jobs.get(id);
+		if (job == null || !job.cancel()) {
+			return false;
+		}
+		deleteFile(job);
+		return true;
+	}
+
+	/**
+	 * Removes finished jobs that are older than the retention period and deletes their files. Called periodically by
+	 * the service.
+	 */
+	public void purgeExpired() {
+		Instant cutoff = Instant.now().minus(retention);
+		for (ExportJob job : jobs.values()) {
+			if (job.isDone() && job.getCompletedAt().isBefore(cutoff)) {
+				jobs.remove(job.getId());
+				deleteFile(job);
+				log.debug("Expired export job {}", job);
+			}
+		}
+	}
+
+	/**
+	 * Cancels running jobs, stops the service's threads and deletes all export files.
+	 */
+	@Override
+	public void close() {
+		cleaner.shutdownNow();
+		executor.shutdownNow();
+		for (ExportJob job : jobs.values()) {
+			job.cancel();
+			deleteFile(job);
+		}
+		jobs.clear();
+	}
+
+	private void run(ExportJob job, Exporter exporter, Supplier<List<Table>> tables) {
+		if (!job.start()) {
+			return;
+		}
+		try {
+			if (transactionOperations != null) {
+				transactionOperations.executeWithoutResult(status -> write(job, exporter, tables));
+			} else {
+				write(job, exporter, tables);
+			}
+			job.complete();
+			log.debug("Completed export job {}", job);
+		} catch (RuntimeException | Error e) {
+			if (!job.isCancelled()) {
+				log.error("Export job {} failed", job.getId(), e);
+				job.fail(e instanceof UncheckedIOException ? e.getCause() : e);
+			}
+			deleteFile(job);
+			if (e instanceof Error error) {
+				throw error;
+			}
+		}
+	}
+
+	private void write(ExportJob job, Exporter exporter, Supplier<List<Table>> tables) {
+		List<Table> progressTables = tables.get().stream()
+				.<Table> map(table -> new ProgressTable(table, job))
+				.toList();
+		job.setTotalRows(totalRows(progressTables));
+
+		try (OutputStream outputStream = new ProgressOutputStream(Files.newOutputStream(job.getFile()), job)) {
+			exporter.export(outputStream, progressTables);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static Long totalRows(List<Table> tables) {
+		long total = 0;
+		for (Table table : tables) {
+			OptionalLong count = table.rowCountHint();
+			if (count.isEmpty()) {
+				return null;
+			}
+			total += count.getAsLong();
+		}
+		return total;
+	}
+
+	private static void deleteFile(ExportJob job) {
+		try {
+			Files.deleteIfExists(job.getFile());
+		} catch (IOException e) {
+			log.warn("Could not delete export file {}", job.getFile(), e);
+		}
+	}
+
+	/**
+	 * Output stream that counts bytes towards the job's progress and stops the export when the job is cancelled.
+	 */
+	private static class ProgressOutputStream extends FilterOutputStream {
+
+		private final ExportJob job;
+
+		ProgressOutputStream(OutputStream out, ExportJob job) {
+			super(out);
+			this.job = job;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			checkCancelled();
+			out.write(b);
+			job.addBytes(1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			checkCancelled();
+			out.write(b, off, len);
+			job.addBytes(len);
+		}
+
+		private void checkCancelled() throws InterruptedIOException {
+			if (job.isCancelled() || Thread.currentThread().isInterrupted()) {
+				throw new InterruptedIOException("Export job " + job.getId() + " was cancelled");
+			}
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package org.octri.common.export;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+import org.octri.common.view.Table;
+
+/**
+ * A {@link Table} wrapper that counts the rows read from it towards an export job's progress.
+ */
+class ProgressTable implements Table {
+
+	private final Table table;
+	private final ExportJob job;
+
+	ProgressTable(Table table, ExportJob job) {
+		this.table = table;
+		this.job = job;
+	}
+
+	@Override
+	public String displayName() {
+		return table.displayName();
+	}
+
+	@Override
+	public List<String> headers() {
+		return table.headers();
+	}
+
+	@Override
+	public List<List<String>> rows() {
+		List<List<String>> rows = table.rows();
+		job.addRows(rows.size());
+		return rows;
+	}
+
+	@Override
+	public Stream<List<String>> rowStream() {
+		return table.rowStream().peek(row -> job.addRows(1));
+	}
+
+	@Override
+	public Stream<List<Object>> valueStream() {
+		return table.valueStream().peek(row -> job.addRows(1));
+	}
+
+	@Override
+	public List<Class<?>> columnTypes() {
+		return table.columnTypes();
+	}
+
+	@Override
+	public int columnCount() {
+		return table.columnCount();
+	}
+
+	@Override
+	public OptionalLong rowCountHint() {
+		return table.rowCountHint();
+	}
+}
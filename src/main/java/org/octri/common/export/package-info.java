@@ -0,0 +1,6 @@
+/**
+ * Package for running exports outside of the request that asks for them. The classes in this package build on the
+ * {@link org.octri.common.view.Exporter} and {@link org.octri.common.view.Table} interfaces and are intended to be
+ * created as beans by applications that need them.
+ */
+package org.octri.common.export;
@@ -0,0 +1,275 @@
+package org.octri.common.repository;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.hibernate.jpa.HibernateHints;
+import org.octri.common.domain.AbstractEntity;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Keyset (seek) pagination for entity repositories. Instead of skipping rows with an offset, each page starts after
+ * the last row of the previous page, so reading a page costs the same no matter how deep it is. Pages are ordered by
+ * ID, or by a sort property with the ID as a tie-breaker. Sort properties must not be null.
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * List&lt;Participant&gt; page = Keyset.page(repository, null, lastId, 50);
+ * try (Stream&lt;Participant&gt; participants = Keyset.stream(repository, null, 1000)) {
+ * 	...
+ * }
+ * </pre>
+ */
+public final class Keyset {
+
+	private static final String ID = "id";
+
+	private Keyset() {
+	}
+
+	/**
+	 * @param <T>
+	 * @param afterId
+	 *            - ID of the last entity of the previous page, or null for the first page
+	 * @return a filter matching entities after the given ID in ascending ID order
+	 */
+	public static <T extends AbstractEntity> Specification<T> after(Long afterId) {
+		return (root, query, builder) -> afterId == null ? null : builder.greaterThan(root.<Long> get(ID), afterId);
+	}
+
+	/**
+	 * @param <T>
+	 * @param <K>
+	 * @param property
+	 *            - sort property
+	 * @param value
+	 *            - sort property value of the last entity of the previous page, or null for the first page
+	 * @param afterId
+	 *            - ID of the last entity of the previous page
+	 * @param direction
+	 *            - sort direction of both the property and the ID
+	 * @return a filter matching entities after the given position in {@link #sort(String, Sort.Direction)} order
+	 */
+	public static <T extends AbstractEntity, K extends Comparable<? super K>> Specification<T> after(String property,
+			K value, Long afterId, Sort.Direction direction) {
+		return (root, query, builder) -> {
+			if (value == null || afterId == null) {
+				return null;
+			}
+			if (direction.isAscending()) {
+				return builder.or(builder.greaterThan(root.<K> get(property), value),
+						builder.and(builder.equal(root.get(property), value),
+								builder.greaterThan(root.<Long> get(ID), afterId)));
+			}
+			return builder.or(builder.lessThan(root.<K> get(property), value),
+					builder.and(builder.equal(root.get(property), value),
+							builder.lessThan(root.<Long> get(ID), afterId)));
+		};
+	}
+
+	/**
+	 * @param property
+	 *            - sort property
+	 * @param direction
+	 * @return the order of keyset pages sorted by the property, with the ID as a tie-breaker
+	 */
+	public static Sort sort(String property, Sort.Direction direction) {
+		if (ID.equals(property)) {
+			return Sort.by(direction, ID);
+		}
+		return Sort.by(direction, property).and(Sort.by(direction, ID));
+	}
+
+	/**
+	 * Reads a page of entities in ascending ID order. No count query is run.
+	 *
+	 * @param <T>
+	 * @param repository
+	 * @param filter
+	 *            - additional filter, or null
+	 * @param afterId
+	 *            - ID of the last entity of the previous page, or null for the first page
+	 * @param size
+	 *            - maximum number of entities
+	 * @return the entities of the page
+	 */
+	public static <T extends AbstractEntity> List<T> page(JpaSpecificationExecutor<T> repository,
+			Specification<T> filter, Long afterId, int size) {
+		return page(repository, and(Keyset.<T> after(afterId), filter), Sort.by(ID), size);
+	}
+
+	/**
+	 * Reads a page of entities after the given position, ordered by {@code sort}. No count query is run.
+	 *
+	 * @param <T>
+	 * @param repository
+	 * @param position
+	 *            - filter created by one of the {@code after} methods, combined with any additional filter
+	 * @param sort
+	 *            - order matching the position filter
+	 * @param size
+	 *            - maximum number of entities
+	 * @return the entities of the page
+	 */
+	public static <T extends AbstractEntity> List<T> page(JpaSpecificationExecutor<T> repository,
+			Specification<T> position, Sort sort, int size) {
+		return repository.findBy(position, query -> query.sortBy(sort).limit(size).all());
+	}
+
+	/**
+	 * Streams all matching entities in ascending ID order, reading them in keyset pages of the given size. Only one
+	 * page is held by the stream at a time; entities stay in the persistence context unless they are detached or the
+	 * context is cleared.
+	 *
+	 * @param <T>
+	 * @param repository
+	 * @param filter
+	 *            - additional filter, or null
+	 * @param chunkSize
+	 *            - number of entities read per query
+	 * @return a lazy stream of the entities
+	 */
+	public static <T extends AbstractEntity> Stream<T> stream(JpaSpecificationExecutor<T> repository,
+			Specification<T> filter, int chunkSize) {
+		return chunks(repository, filter, chunkSize).flatMap(List::stream);
+	}
+
+	/**
+	 * Reads all matching entities in ascending ID order as a lazy stream of keyset pages.
+	 *
+	 * @param <T>
+	 * @param repository
+	 * @param filter
+	 *            - additional filter, or null
+	 * @param chunkSize
+	 *            - number of entities read per query
+	 * @return a lazy stream of pages
+	 */
+	public static <T extends AbstractEntity> Stream<List<T>> chunks(JpaSpecificationExecutor<T> repository,
+			Specification<T> filter, int chunkSize) {
+		return chunks(lastId -> page(repository, filter, lastId, chunkSize), chunkSize);
+	}
+
+	/**
+	 * Reads all entities of a class in ascending ID order as a lazy stream of keyset pages, using the entity manager
+	 * directly. Works with any repository type.
+	 *
+	 * @param <T>
+	 * @param entityManager
+	 * @param entityClass
+	 * @param chunkSize
+	 *            - number of entities read per query
+	 * @return a lazy stream of pages
+	 */
+	public static <T extends AbstractEntity> Stream<List<T>> chunks(EntityManager entityManager, Class<T> entityClass,
+			int chunkSize) {
+		return chunks(lastId -> query(entityManager, entityClass, lastId, chunkSize).getResultList(), chunkSize);
+	}
+
+	/**
+	 * Reads all entities of a class in ascending ID order as a lazy stream of keyset pages, for exports and other
+	 * reads of whole tables. Entities are loaded read-only, so Hibernate keeps no snapshot of them for dirty checking,
+	 * and the persistence context is cleared before each page after the first is read, so the entities of a page are
+	 * detached once it has been consumed. Memory use then depends on the chunk size, not on the size of the table.
+	 * Clearing discards unflushed changes, so the stream must not be read while the persistence context holds any.
+	 *
+	 * @param <T>
+	 * @param entityManager
+	 * @param entityClass
+	 * @param chunkSize
+	 *            - number of entities read per query
+	 * @return a lazy stream of pages
+	 */
+	public static <T extends AbstractEntity> Stream<List<T>> readOnlyChunks(EntityManager entityManager,
+			Class<T> entityClass, int chunkSize) {
+		return chunks(lastId -> {
+			if (lastId != null) {
+				entityManager.clear();
+			}
+			return query(entityManager, entityClass, lastId, chunkSize)
+					.setHint(HibernateHints.HINT_READ_ONLY, true)
+					.getResultList();
+		}, chunkSize);
+	}
+
+	private static <T extends AbstractEntity> TypedQuery<T> query(EntityManager entityManager, Class<T> entityClass,
+			Long lastId, int chunkSize) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<T> query = builder.createQuery(entityClass);
+		Root<T> root = query.from(entityClass);
+		query.select(root).orderBy(builder.asc(root.get(ID)));
+		if (lastId != null) {
+			query.where(builder.greaterThan(root.<Long> get(ID), lastId));
+		}
+		return entityManager.createQuery(query).setMaxResults(chunkSize);
+	}
+
+	/**
+	 * Reads keyset pages until a page is shorter than the chunk size.
+	 *
+	 * @param <T>
+	 * @param pageAfter
+	 *            - reads the page after the given ID, or the first page for null
+	 * @param chunkSize
+	 * @return a lazy stream of pages
+	 */
+	static <T extends AbstractEntity> Stream<List<T>> chunks(Function<Long, List<T>> pageAfter, int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be positive");
+		}
+		Iterator<List<T>> iterator = new Iterator<>() {
+
+			private Long lastId;
+			private List<T> next;
+			private boolean done;
+
+			@Override
+			public boolean hasNext() {
+				if (next == null && !done) {
+					List<T> chunk = pageAfter.apply(lastId);
+					if (chunk.isEmpty()) {
+						done = true;
+					} else {
+						next = chunk;
+						lastId = chunk.get(chunk.size() - 1).getId();
+						done = chunk.size() < chunkSize;
+					}
+				}
+				return next != null;
+			}
+
+			@Override
+			public List<T> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				List<T> chunk = next;
+				next = null;
+				return chunk;
+			}
+		};
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	private static <T> Specification<T> and(Specification<T> position, Specification<T> filter) {
+		return filter == null ? position : position.and(filter);
+	}
+}
@@ -0,0 +1,101 @@
+package org.octri.common.view;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Splits a stream into consecutive chunks without reading ahead more than one chunk, and maps chunks concurrently while
+ * keeping their order.
+ */
+final class Chunks {
+
+	private Chunks() {
+	}
+
+	/**
+	 * Groups the elements of a stream into lists of the given size, in order. The last chunk may be smaller. Closing
+	 * the returned stream closes the source stream.
+	 *
+	 * @param <T>
+	 * @param source
+	 * @param size
+	 *            - maximum number of elements in a chunk
+	 * @return a sequential stream of chunks
+	 */
+	static <T> Stream<List<T>> of(Stream<T> source, int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Chunk size must be positive");
+		}
+		Iterator<T> iterator = source.iterator();
+		Spliterator<List<T>> chunks = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+				Spliterator.ORDERED | Spliterator.NONNULL) {
+
+			@Override
+			public boolean tryAdvance(Consumer<? super List<T>> action) {
+				if (!iterator.hasNext()) {
+					return false;
+				}
+				List<T> chunk = new ArrayList<>(size);
+				while (chunk.size() < size && iterator.hasNext()) {
+					chunk.add(iterator.next());
+				}
+				action.accept(chunk);
+				return true;
+			}
+		};
+		return StreamSupport.stream(chunks, false).onClose(source::close);
+	}
+
+	/**
+	 * Maps the elements of a stream on a fork/join pool, returning the results in source order. At most
+	 * {@code window} elements are being mapped at a time. Elements are read from the source on the calling thread, and
+	 * each result is returned as soon as it and the results before it are done, so mapping overlaps with consuming the
+	 * results. Closing the returned stream cancels pending tasks and closes the source stream.
+	 *
+	 * @param <T>
+	 * @param <R>
+	 * @param source
+	 * @param mapper
+	 *            - function applied on the pool, which must not depend on the calling thread
+	 * @param pool
+	 * @param window
+	 *            - maximum number of elements mapped at a time
+	 * @return a sequential stream of results
+	 */
+	static <T, R> Stream<R> mapOrdered(Stream<T> source, Function<? super T, ? extends R> mapper, ForkJoinPool pool,
+			int window) {
+		Iterator<T> iterator = source.iterator();
+		Deque<ForkJoinTask<? extends R>> pending = new ArrayDeque<>(window);
+		Spliterator<R> results = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+			@Override
+			public boolean tryAdvance(Consumer<? super R> action) {
+				while (pending.size() < window && iterator.hasNext()) {
+					T element = iterator.next();
+					pending.add(pool.submit(() -> mapper.apply(element)));
+				}
+				if (pending.isEmpty()) {
+					return false;
+				}
+				action.accept(pending.poll().join());
+				return true;
+			}
+		};
+		return StreamSupport.stream(results, false).onClose(() -> {
+			pending.forEach(task -> task.cancel(false));
+			pending.clear();
+			source.close();
+		});
+	}
+}
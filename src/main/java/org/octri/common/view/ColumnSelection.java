@@ -0,0 +1,138 @@
+package org.octri.common.view;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Selects and orders the columns exported by a {@link ReflectiveTable}. Columns are either all columns in declaration
+ * order or an explicit list in the given order, minus any excluded columns. Collection-valued columns are left out
+ * unless the selection's {@link CollectionPolicy} is {@link CollectionPolicy#SUMMARIZE}.
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * ColumnSelection.include("lastName", "firstName", "startDate");
+ * ColumnSelection.all().excluding("notes");
+ * ColumnSelection.all().withCollections(CollectionPolicy.SUMMARIZE);
+ * </pre>
+ */
+public final class ColumnSelection {
+
+	/**
+	 * How collection-valued fields, such as OneToMany associations, are exported.
+	 */
+	public enum CollectionPolicy {
+		/**
+		 * Collection fields are not exported.
+		 */
+		SKIP,
+		/**
+		 * Collection fields are exported as the number of elements if the collection has been loaded, or left empty
+		 * otherwise. Lazy collections are never loaded.
+		 */
+		SUMMARIZE
+	}
+
+	private static final ColumnSelection ALL = new ColumnSelection(null, Set.of(), CollectionPolicy.SKIP);
+
+	private final List<String> included;
+	private final Set<String> excluded;
+	private final CollectionPolicy collectionPolicy;
+
+	private ColumnSelection(List<String> included, Set<String> excluded, CollectionPolicy collectionPolicy) {
+		this.included = included;
+		this.excluded = excluded;
+		this.collectionPolicy = collectionPolicy;
+	}
+
+	/**
+	 * @return a selection of all columns in declaration order
+	 */
+	public static ColumnSelection all() {
+		return ALL;
+	}
+
+	/**
+	 * @param columns
+	 *            - names of the columns to export, in export order
+	 * @return a selection of the given columns
+	 */
+	public static ColumnSelection include(String... columns) {
+		return include(Arrays.asList(columns));
+	}
+
+	/**
+	 * @param columns
+	 *            - names of the columns to export, in export order
+	 * @return a selection of the given columns
+	 */
+	public static ColumnSelection include(List<String> columns) {
+		return new ColumnSelection(List.copyOf(columns), Set.of(), CollectionPolicy.SKIP);
+	}
+
+	/**
+	 * @param columns
+	 *            - names of the columns to leave out
+	 * @return a selection of all columns except the given ones
+	 */
+	public static ColumnSelection exclude(String... columns) {
+		return all().excluding(columns);
+	}
+
+	/**
+	 * @param columns
+	 *            - names of additional columns to leave out
+	 * @return a copy of this selection without the given columns
+	 */
+	public ColumnSelection excluding(String... columns) {
+		Set<String> combined = new HashSet<>(excluded);
+		combined.addAll(Arrays.asList(columns));
+		return new ColumnSelection(included, Set.copyOf(combined), collectionPolicy);
+	}
+
+	/**
+	 * @param collectionPolicy
+	 *            - how collection-valued fields are exported
+	 * @return a copy of this selection with the given collection policy
+	 */
+	public ColumnSelection withCollections(CollectionPolicy collectionPolicy) {
+		return new ColumnSelection(included, excluded, collectionPolicy);
+	}
+
+	/**
+	 * @return how collection-valued fields are exported
+	 */
+	public CollectionPolicy getCollectionPolicy() {
+		return collectionPolicy;
+	}
+
+	/**
+	 * @return true if this selection exports every available column in declaration order
+	 */
+	public boolean isAll() {
+		return included == null && excluded.isEmpty();
+	}
+
+	/**
+	 * Applies the selection to the available columns.
+	 *
+	 * @param available
+	 *            - column names in declaration order
+	 * @return the selected column names in export order
+	 * @throws IllegalArgumentException
+	 *             if an included column is not available
+	 */
+	public List<String> apply(List<String> available) {
+		List<String> columns = included != null ? included : available;
+		for (String column : columns) {
+			if (!available.contains(column)) {
+				throw new IllegalArgumentException("Unknown column '" + column + "'");
+			}
+		}
+		return columns.stream().filter(column -> !excluded.contains(column)).toList();
+	}
+}
@@ -1,38 +1,88 @@
 package org.octri.common.view;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 import com.opencsv.CSVWriter;
 
 /**
- * Exporter that exports as a csv file.
+ * Exporter that exports as a csv file encoded as UTF-8.
+ *
+ * <p>
+ * When provided with multiple tables, a single wide, sparse table is written. The header is the union of the table
+ * headers, and each table's rows fill only that table's columns. If a join key is configured, rows from different
+ * tables with the same key value are merged into a single line instead. Rows are streamed from each table, so memory
+ * use does not depend on the size of the tables.
+ * </p>
  */
 public class CsvExporter implements Exporter {
 
+	private static final String NATURAL_ORDER_ID = "natural";
+
+	private String joinKey;
+	private Comparator<String> joinKeyOrder = Comparator.naturalOrder();
+	private String joinKeyOrderId = NATURAL_ORDER_ID;
+
+	/**
+	 * Constructs an exporter that stacks the rows of multiple tables.
+	 */
+	public CsvExporter() {
+	}
+
+	/**
+	 * Constructs an exporter that lines up the rows of multiple tables by the given column.
+	 *
+	 * @param joinKey
+	 *            - name of the column present in every table
+	 */
+	public CsvExporter(String joinKey) {
+		setJoinKey(joinKey);
+	}
+
 	/**
 	 * Export responses for a single table.
 	 */
 	@Override
 	public void export(OutputStream outputStream, Table table) throws IOException {
-		PrintWriter printWriter = new PrintWriter(outputStream);
-		CSVWriter writer = new CSVWriter(printWriter);
-		writer.writeNext(header(table));
-		for (String[] row : rows(table)) {
-			writer.writeNext(row);
+		try (CSVWriter writer = new CSVWriter(createWriter(outputStream))) {
+			write(writer, table);
 		}
-		writer.close();
 	}
 
 	/**
-	 * Export responses for multiple tables.
+	 * Export responses for multiple tables as a single wide, sparse table.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a join key is configured and a table does not have the join key column
+	 * @throws IllegalStateException
+	 *             if a join key is configured and a table's rows are not sorted by the join key
 	 */
 	@Override
 	public void export(OutputStream outputStream, List<Table> tables) throws IOException {
-		// TODO: implementation that creates a single wide, sparse table.
-		throw new UnsupportedOperationException("Unimplemented method 'export'");
+		try (CSVWriter writer = new CSVWriter(createWriter(outputStream))) {
+			List<String> header = new ArrayList<>();
+			List<int[]> columnSlices = columnSlices(tables, header);
+			writer.writeNext(header.toArray(String[]::new));
+
+			if (joinKey == null) {
+				writeStacked(writer, tables, columnSlices, header.size());
+			} else {
+				writeJoined(writer, tables, columnSlices, header.size());
+			}
+		}
 	}
 
 	@Override
@@ -40,13 +90,232 @@ public class CsvExporter implements Exporter {
 		return ".csv";
 	}
 
+	/**
+	 * Describes the join key and its order. Returns null, so the output is not cached, when rows are joined in a
+	 * custom order that was set without an order id.
+	 */
+	@Override
+	public String getConfigurationKey() {
+		if (joinKey == null) {
+			return "";
+		}
+		return joinKeyOrderId == null ? null : "joinKey=" + joinKey + ";order=" + joinKeyOrderId;
+	}
+
+	/**
+	 * @return name of the column used to line up rows from multiple tables, or null if rows are stacked
+	 */
+	public String getJoinKey() {
+		return joinKey;
+	}
+
+	/**
+	 * Sets the column used to line up rows from multiple tables. Every table must have the column, and each table's
+	 * rows must be sorted by it in natural string order.
+	 *
+	 * @param joinKey
+	 *            - column name, or null to stack the rows of each table
+	 */
+	public void setJoinKey(String joinKey) {
+		setJoinKey(joinKey, Comparator.naturalOrder(), NATURAL_ORDER_ID);
+	}
+
+	/**
+	 * Sets the column used to line up rows from multiple tables. Every table must have the column, and each table's
+	 * rows must be sorted by it in the given order. Since the order cannot be told apart from other orders, exports
+	 * are not cached by {@link org.octri.common.export.ExportCache}; use
+	 * {@link #setJoinKey(String, Comparator, String)} to name the order.
+	 *
+	 * @param joinKey
+	 *            - column name, or null to stack the rows of each table
+	 * @param joinKeyOrder
+	 *            - order the tables' rows are sorted in
+	 */
+	public void setJoinKey(String joinKey, Comparator<String> joinKeyOrder) {
+		setJoinKey(joinKey, joinKeyOrder, null);
+	}
+
+	/**
+	 * Sets the column used to line up rows from multiple tables. Every table must have the column, and each table's
+	 * rows must be sorted by it in the given order. The order id is part of {@link #getConfigurationKey()}, so it must
+	 * differ for comparators that order keys differently.
+	 *
+	 * @param joinKey
+	 *            - column name, or null to stack the rows of each table
+	 * @param joinKeyOrder
+	 *            - order the tables' rows are sorted in
+	 * @param joinKeyOrderId
+	 *            - name that identifies the order, or null if exports must not be cached
+	 */
+	public void setJoinKey(String joinKey, Comparator<String> joinKeyOrder, String joinKeyOrderId) {
+		this.joinKey = joinKey;
+		this.joinKeyOrder = joinKeyOrder;
+		this.joinKeyOrderId = joinKeyOrderId;
+	}
+
+	/**
+	 * Creates the character writer that csv lines are written to. Closing the writer closes the output stream.
+	 *
+	 * @param outputStream
+	 * @return a writer that encodes characters as UTF-8
+	 * @throws IOException
+	 */
+	protected Writer createWriter(OutputStream outputStream) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Writes the header and rows of a single table without closing the writer.
+	 *
+	 * @param writer
+	 * @param table
+	 */
+	protected void write(CSVWriter writer, Table table) {
+		writer.writeNext(header(table));
+		try (Stream<String[]> rows = rows(table)) {
+			rows.forEachOrdered(writer::writeNext);
+		}
+	}
+
 	String[] header(Table summary) {
 		return summary.headers().toArray(String[]::new);
 	}
 
-	List<String[]> rows(Table summary) {
-		return summary.rows().stream()
-				.map(row -> row.toArray(String[]::new))
-				.toList();
+	Stream<String[]> rows(Table summary) {
+		return summary.rowStream()
+				.map(row -> row.toArray(String[]::new));
+	}
+
+	/**
+	 * Computes the union header of the tables and, for each table, the position of each of its columns in the union.
+	 * Columns with the same name share a position, except when rows are joined, where columns other than the join key
+	 * that appear in more than one table are qualified with the table's display name.
+	 *
+	 * @param tables
+	 * @param header
+	 *            - list that the union header is added to
+	 * @return column positions for each table
+	 */
+	List<int[]> columnSlices(List<Table> tables, List<String> header) {
+		Map<String, Integer> occurrences = new HashMap<>();
+		for (Table table : tables) {
+			for (String column : table.headers()) {
+				occurrences.merge(column, 1, Integer::sum);
+			}
+		}
+
+		Map<String, Integer> positions = new LinkedHashMap<>();
+		List<int[]> slices = new ArrayList<>();
+		for (Table table : tables) {
+			List<String> columns = table.headers();
+			if (joinKey != null && !columns.contains(joinKey)) {
+				throw new IllegalArgumentException(
+						"Table '" + table.displayName() + "' does not have join key column '" + joinKey + "'");
+			}
+
+			int[] slice = new int[columns.size()];
+			for (int i = 0; i < columns.size(); i++) {
+				String column = columns.get(i);
+				if (joinKey != null && !column.equals(joinKey) && occurrences.get(column) > 1) {
+					column = table.displayName() + "." + column;
+				}
+				slice[i] = positions.computeIfAbsent(column, name -> positions.size());
+			}
+			slices.add(slice);
+		}
+
+		header.addAll(positions.keySet());
+		return slices;
+	}
+
+	private void writeStacked(CSVWriter writer, List<Table> tables, List<int[]> columnSlices, int width) {
+		for (int t = 0; t < tables.size(); t++) {
+			int[] slice = columnSlices.get(t);
+			try (Stream<List<String>> rows = tables.get(t).rowStream()) {
+				Iterator<List<String>> iterator = rows.iterator();
+				while (iterator.hasNext()) {
+					String[] wideRow = new String[width];
+					fill(wideRow, slice, iterator.next());
+					writer.writeNext(wideRow);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Merges the sorted rows of each table by join key. Only the current row of each table is held in memory. Rows of
+	 * different tables that share a key value are paired in order; unmatched columns are left empty.
+	 */
+	private void writeJoined(CSVWriter writer, List<Table> tables, List<int[]> columnSlices, int width) {
+		if (tables.isEmpty()) {
+			return;
+		}
+		int tableCount = tables.size();
+		List<Stream<List<String>>> streams = new ArrayList<>(tableCount);
+		try {
+			List<Iterator<List<String>>> iterators = new ArrayList<>(tableCount);
+			int[] keyIndexes = new int[tableCount];
+			String[] keys = new String[tableCount];
+			List<List<String>> currentRows = new ArrayList<>(tableCount);
+
+			for (int t = 0; t < tableCount; t++) {
+				Table table = tables.get(t);
+				Stream<List<String>> rows = table.rowStream();
+				streams.add(rows);
+				iterators.add(rows.iterator());
+				keyIndexes[t] = table.headers().indexOf(joinKey);
+				currentRows.add(null);
+				advance(tables, iterators, keyIndexes, keys, currentRows, t);
+			}
+
+			int keyPosition = columnSlices.get(0)[keyIndexes[0]];
+			while (true) {
+				String minKey = null;
+				for (int t = 0; t < tableCount; t++) {
+					if (currentRows.get(t) != null && (minKey == null || joinKeyOrder.compare(keys[t], minKey) < 0)) {
+						minKey = keys[t];
+					}
+				}
+				if (minKey == null) {
+					break;
+				}
+
+				String[] wideRow = new String[width];
+				for (int t = 0; t < tableCount; t++) {
+					if (currentRows.get(t) != null && joinKeyOrder.compare(keys[t], minKey) == 0) {
+						fill(wideRow, columnSlices.get(t), currentRows.get(t));
+						advance(tables, iterators, keyIndexes, keys, currentRows, t);
+					}
+				}
+				wideRow[keyPosition] = minKey;
+				writer.writeNext(wideRow);
+			}
+		} finally {
+			streams.forEach(Stream::close);
+		}
+	}
+
+	private void advance(List<Table> tables, List<Iterator<List<String>>> iterators, int[] keyIndexes,
+			String[] keys, List<List<String>> currentRows, int t) {
+		Iterator<List<String>> iterator = iterators.get(t);
+		if (!iterator.hasNext()) {
+			currentRows.set(t, null);
+			return;
+		}
+
+		List<String> row = iterator.next();
+		String key = Objects.toString(row.get(keyIndexes[t]), "");
+		if (currentRows.get(t) != null && joinKeyOrder.compare(key, keys[t]) < 0) {
+			throw new IllegalStateException(
+					"Table '" + tables.get(t).displayName() + "' is not sorted by join key '" + joinKey + "'");
+		}
+		keys[t] = key;
+		currentRows.set(t, row);
+	}
+
+	private static void fill(String[] wideRow, int[] slice, List<String> row) {
+		for (int i = 0; i < slice.length && i < row.size(); i++) {
+			wideRow[slice[i]] = row.get(i);
+		}
 	}
 }
@@ -2,27 +2,143 @@ package org.octri.common.view;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.WorkbookUtil;
-import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 /**
  * Exporter that exports an Excel document (xlsx). When provided with multiple tables, a new sheet will be created
  * for each.
+ *
+ * <p>
+ * By default the whole workbook is built in memory before it is written. For large exports, use
+ * {@link #streaming()} or {@link #setRowAccessWindowSize(int)} to build the workbook with a sliding window of rows;
+ * rows that fall out of the window are flushed to compressed temporary files, so heap use does not grow with the
+ * number of rows.
+ * </p>
+ * <p>
+ * When an executor is provided with {@link #setExecutor(Executor)}, the rows of each table are read concurrently on
+ * the executor and the sheets are then written to the workbook in order. Sheet names are assigned in table order, so
+ * they are the same as for a sequential export. Tables read concurrently are held in memory until their sheet is
+ * written, so at most {@link #getMaxConcurrentTables()} tables are read at a time; heap use then grows with the size
+ * of that many tables, even in streaming mode.
+ * </p>
+ * <p>
+ * Values are written as native numeric, boolean and date cells according to {@link Table#columnTypes()}; other values
+ * are written as strings.
+ * </p>
+ * <p>
+ * By default strings are stored in the workbook's shared strings table, which is held in memory until the workbook is
+ * written. For columns with many distinct values, such as free text or identifiers, this table can grow very large.
+ * {@link #setStringStorage(StringStorage)} can instead store strings inline in each cell, or choose between the two
+ * based on a sample of the first rows of the first table. Inline strings are only supported by streaming workbooks,
+ * so choosing them enables streaming with the default row window.
+ * </p>
  */
 public class ExcelExporter implements Exporter {
 
+	/**
+	 * Number of rows per sheet kept in memory by {@link #streaming()} exporters.
+	 */
+	public static final int DEFAULT_ROW_ACCESS_WINDOW_SIZE = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+	/**
+	 * How string cell values are stored in the workbook.
+	 */
+	public enum StringStorage {
+		/**
+		 * Store each distinct string once in the shared strings table. Best for columns with few distinct values.
+		 */
+		SHARED,
+		/**
+		 * Store strings inline in each cell. Best for columns with many distinct values.
+		 */
+		INLINE,
+		/**
+		 * Choose inline storage when the share of distinct strings in a sample of rows exceeds a threshold.
+		 */
+		AUTO
+	}
+
+	/**
+	 * Number of tables read concurrently by default when an executor is set.
+	 */
+	public static final int DEFAULT_MAX_CONCURRENT_TABLES = 2;
+
+	/**
+	 * Number of rows sampled by {@link StringStorage#AUTO} by default.
+	 */
+	public static final int DEFAULT_CARDINALITY_SAMPLE_SIZE = 1000;
+
+	/**
+	 * Share of distinct strings above which {@link StringStorage#AUTO} stores strings inline by default.
+	 */
+	public static final double DEFAULT_INLINE_CARDINALITY_THRESHOLD = 0.5;
+
+	/**
+	 * How values of a column are written to cells.
+	 */
+	private enum CellKind {
+		STRING, NUMBER, BOOLEAN, DATE, DATE_TIME
+	}
+
 	private final Integer MAX_WORKSHEET_NAME_CHARS = 31;
 	private Map<String, Integer> sheetNames = new HashMap<String, Integer>();
+	private int rowAccessWindowSize = 0;
+	private Executor executor;
+	private int maxConcurrentTables = DEFAULT_MAX_CONCURRENT_TABLES;
+	private StringStorage stringStorage = StringStorage.SHARED;
+	private int cardinalitySampleSize = DEFAULT_CARDINALITY_SAMPLE_SIZE;
+	private double inlineCardinalityThreshold = DEFAULT_INLINE_CARDINALITY_THRESHOLD;
+
+	/**
+	 * Constructs an exporter that builds the workbook in memory.
+	 */
+	public ExcelExporter() {
+	}
+
+	/**
+	 * Constructs an exporter that streams rows to disk, keeping at most the given number of rows per sheet in memory.
+	 *
+	 * @param rowAccessWindowSize
+	 *            - number of rows kept in memory; zero or less builds the workbook in memory
+	 */
+	public ExcelExporter(int rowAccessWindowSize) {
+		setRowAccessWindowSize(rowAccessWindowSize);
+	}
+
+	/**
+	 * Creates an exporter that streams rows to disk using the default row window.
+	 *
+	 * @return a streaming exporter
+	 */
+	public static ExcelExporter streaming() {
+		return new ExcelExporter(DEFAULT_ROW_ACCESS_WINDOW_SIZE);
+	}
 
 	/**
 	 * Export the tables in Excel format. Each table will be a separate sheet in the workbook.
@@ -30,14 +146,28 @@ public class ExcelExporter implements Exporter {
 	@Override
 	public void export(OutputStream outputStream, List<Table> tables) throws IOException {
 		this.reset();
-		Workbook workbook = new XSSFWorkbook();
-
-		for (Table table : tables) {
-			appendSheet(workbook, table);
+		boolean inlineStrings = stringStorage == StringStorage.INLINE;
+		if (stringStorage == StringStorage.AUTO && !tables.isEmpty()) {
+			SampledTable sampledTable = SampledTable.of(tables.get(0), cardinalitySampleSize);
+			inlineStrings = stringCardinality(sampledTable) > inlineCardinalityThreshold;
+			tables = new ArrayList<>(tables);
+			tables.set(0, sampledTable);
 		}
+		Workbook workbook = createWorkbook(inlineStrings);
+
+		try {
+			if (executor != null && tables.size() > 1) {
+				appendSheetsConcurrently(workbook, tables);
+			} else {
+				for (Table table : tables) {
+					appendSheet(workbook, table);
+				}
+			}
 
-		workbook.write(outputStream);
-		workbook.close();
+			workbook.write(outputStream);
+		} finally {
+			closeWorkbook(workbook);
+		}
 	}
 
 	/**
@@ -52,12 +182,173 @@ public class ExcelExporter implements Exporter {
 		return ".xlsx";
 	}
 
+	@Override
+	public String getConfigurationKey() {
+		String key = "stringStorage=" + stringStorage;
+		if (stringStorage == StringStorage.AUTO) {
+			key += ";sample=" + cardinalitySampleSize + ";threshold=" + inlineCardinalityThreshold;
+		}
+		return key;
+	}
+
+	/**
+	 * @return the number of rows per sheet kept in memory, or zero if the workbook is built in memory
+	 */
+	public int getRowAccessWindowSize() {
+		return rowAccessWindowSize;
+	}
+
+	/**
+	 * Sets the number of rows per sheet kept in memory. A positive value enables streaming mode.
+	 *
+	 * @param rowAccessWindowSize
+	 *            - number of rows kept in memory; zero or less builds the workbook in memory
+	 */
+	public void setRowAccessWindowSize(int rowAccessWindowSize) {
+		this.rowAccessWindowSize = Math.max(0, rowAccessWindowSize);
+	}
+
+	/**
+	 * @return whether rows are flushed to temporary files as the workbook is built
+	 */
+	public boolean isStreaming() {
+		return rowAccessWindowSize > 0;
+	}
+
+	/**
+	 * @return the executor used to read table rows concurrently, or null if tables are read sequentially
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the executor used to read the rows of each table concurrently when exporting multiple tables. Each table's
+	 * rows are held in memory until its sheet is written, so this is best suited to tables whose rows are expensive to
+	 * compute.
+	 *
+	 * @param executor
+	 *            - executor to use, or null to read tables sequentially
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * @return maximum number of tables read concurrently and held in memory
+	 */
+	public int getMaxConcurrentTables() {
+		return maxConcurrentTables;
+	}
+
+	/**
+	 * Sets the maximum number of tables read concurrently when an executor is set. Each table being read, or waiting
+	 * for its sheet to be written, is held in memory, so this bounds the heap used by a concurrent export. It is
+	 * typically the number of threads of the executor.
+	 *
+	 * @param maxConcurrentTables
+	 *            - maximum number of tables in flight, at least 1
+	 */
+	public void setMaxConcurrentTables(int maxConcurrentTables) {
+		if (maxConcurrentTables < 1) {
+			throw new IllegalArgumentException("At least one table must be read at a time");
+		}
+		this.maxConcurrentTables = maxConcurrentTables;
+	}
+
+	/**
+	 * @return how string cell values are stored
+	 */
+	public StringStorage getStringStorage() {
+		return stringStorage;
+	}
+
+	/**
+	 * Sets how string cell values are stored.
+	 *
+	 * @param stringStorage
+	 */
+	public void setStringStorage(StringStorage stringStorage) {
+		this.stringStorage = stringStorage;
+	}
+
+	/**
+	 * Sets how string cell values are stored to {@link StringStorage#AUTO}, with the given sample size and threshold.
+	 *
+	 * @param sampleSize
+	 *            - number of rows of the first table to sample
+	 * @param threshold
+	 *            - share of distinct strings, between 0 and 1, above which strings are stored inline
+	 */
+	public void setAutoStringStorage(int sampleSize, double threshold) {
+		this.stringStorage = StringStorage.AUTO;
+		this.cardinalitySampleSize = sampleSize;
+		this.inlineCardinalityThreshold = threshold;
+	}
+
 	protected void reset() {
 		this.sheetNames = new HashMap<String, Integer>();
 	}
 
 	/**
-	 * Append a sheet to the given workbook. Sheet will have a header and a row for each response.
+	 * Creates the workbook that sheets are appended to. In streaming mode, or when strings are stored inline, this is
+	 * an {@link SXSSFWorkbook} that flushes rows outside the row window to compressed temporary files.
+	 *
+	 * @param inlineStrings
+	 *            - whether strings are stored inline rather than in the shared strings table
+	 * @return a new, empty workbook
+	 */
+	protected Workbook createWorkbook(boolean inlineStrings) {
+		if (!isStreaming() && !inlineStrings) {
+			return new XSSFWorkbook();
+		}
+		int windowSize = isStreaming() ? rowAccessWindowSize : DEFAULT_ROW_ACCESS_WINDOW_SIZE;
+		return new SXSSFWorkbook(null, windowSize, true, !inlineStrings);
+	}
+
+	/**
+	 * Computes the share of distinct values among the sampled values that would be written as strings.
+	 *
+	 * @param table
+	 * @return a value between 0 and 1, or 0 if the sample has no string values
+	 */
+	double stringCardinality(SampledTable table) {
+		List<Class<?>> columnTypes = table.columnTypes();
+		Set<String> distinct = new HashSet<>();
+		long count = 0;
+		for (List<Object> row : table.sample()) {
+			for (int i = 0; i < row.size(); i++) {
+				Object value = row.get(i);
+				CellKind kind = i < columnTypes.size() ? cellKind(columnTypes.get(i)) : CellKind.STRING;
+				if (value != null && (kind == CellKind.STRING || value instanceof CharSequence)) {
+					distinct.add(value.toString());
+					count++;
+				}
+			}
+		}
+		return count == 0 ? 0 : (double) distinct.size() / count;
+	}
+
+	/**
+	 * Closes the workbook, deleting any temporary files backing a streaming workbook.
+	 *
+	 * @param workbook
+	 * @throws IOException
+	 */
+	@SuppressWarnings("deprecation")
+	protected void closeWorkbook(Workbook workbook) throws IOException {
+		try {
+			if (workbook instanceof SXSSFWorkbook streamingWorkbook) {
+				streamingWorkbook.dispose();
+			}
+		} finally {
+			workbook.close();
+		}
+	}
+
+	/**
+	 * Append a sheet to the given workbook. Sheet will have a header and a row for each response, written by
+	 * {@link #addDataValues(Sheet, List, Iterator, CellStyle)}.
 	 *
 	 * @param workbook
 	 *            - workbook to modify
@@ -67,7 +358,42 @@ public class ExcelExporter implements Exporter {
 	protected void appendSheet(Workbook workbook, Table table) {
 		Sheet sheet = workbook.createSheet(createSheetName(table.displayName()));
 		addHeaderRow(sheet, table.headers(), headerStyle(workbook));
-		addDataRows(sheet, table.rows(), bodyStyle(workbook));
+		try (Stream<List<Object>> values = table.valueStream()) {
+			addDataValues(sheet, table.columnTypes(), values.iterator(), bodyStyle(workbook));
+		}
+	}
+
+	/**
+	 * Reads the rows of the tables concurrently on the executor, at most {@link #getMaxConcurrentTables()} at a time,
+	 * and appends a sheet for each table in order. Workbooks are not thread-safe, so only the table contents are
+	 * computed concurrently. If reading a table fails, the tables that have not started are never read.
+	 *
+	 * @param workbook
+	 *            - workbook to modify
+	 * @param tables
+	 *            - the tables to append
+	 * @throws IOException
+	 *             if reading a table fails with a checked exception
+	 */
+	protected void appendSheetsConcurrently(Workbook workbook, List<Table> tables) throws IOException {
+		Deque<CompletableFuture<MaterializedTable>> window = new ArrayDeque<>();
+		int next = 0;
+		try {
+			for (int i = 0; i < tables.size(); i++) {
+				while (next < tables.size() && window.size() < maxConcurrentTables) {
+					Table table = tables.get(next++);
+					window.add(CompletableFuture.supplyAsync(() -> MaterializedTable.of(table), executor));
+				}
+				appendSheet(workbook, window.poll().join());
+			}
+		} catch (CompletionException e) {
+			// a cancelled task that has not started never reads its table; running tasks finish and are discarded
+			window.forEach(content -> content.cancel(false));
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IOException("Failed to read table contents", e.getCause());
+		}
 	}
 
 	/**
@@ -141,19 +467,115 @@ public class ExcelExporter implements Exporter {
 	 * @param bodyStyle
 	 */
 	protected void addDataRows(Sheet sheet, List<List<String>> data, CellStyle bodyStyle) {
+		addDataRows(sheet, data.iterator(), bodyStyle);
+	}
+
+	/**
+	 * Adds a row to the sheet for each row produced by the iterator. Rows are consumed one at a time, so the table
+	 * does not need to be materialized. Every cell is written as a string.
+	 *
+	 * @param sheet
+	 * @param rows
+	 * @param bodyStyle
+	 */
+	protected void addDataRows(Sheet sheet, Iterator<List<String>> rows, CellStyle bodyStyle) {
+		addDataValues(sheet, List.of(), rows, bodyStyle);
+	}
+
+	/**
+	 * Adds a row to the sheet for each row of typed values produced by the iterator. The way each column is written
+	 * is resolved once from its type: numbers, booleans and dates are written as native cells, and anything else as a
+	 * string. Values that do not match their column's type, or that have no column type, are written as strings.
+	 * This is the hook {@link #appendSheet(Workbook, Table)} calls to write the data rows of every sheet.
+	 *
+	 * @param sheet
+	 * @param columnTypes
+	 * @param rows
+	 * @param bodyStyle
+	 */
+	protected void addDataValues(Sheet sheet, List<Class<?>> columnTypes, Iterator<? extends List<?>> rows,
+			CellStyle bodyStyle) {
+		Workbook workbook = sheet.getWorkbook();
+		CellKind[] kinds = new CellKind[columnTypes.size()];
+		CellStyle[] styles = new CellStyle[columnTypes.size()];
+		CellStyle dateStyle = null;
+		CellStyle dateTimeStyle = null;
+		for (int i = 0; i < kinds.length; i++) {
+			kinds[i] = cellKind(columnTypes.get(i));
+			if (kinds[i] == CellKind.DATE) {
+				dateStyle = dateStyle != null ? dateStyle : dateStyle(workbook, bodyStyle);
+				styles[i] = dateStyle;
+			} else if (kinds[i] == CellKind.DATE_TIME) {
+				dateTimeStyle = dateTimeStyle != null ? dateTimeStyle : dateTimeStyle(workbook, bodyStyle);
+				styles[i] = dateTimeStyle;
+			} else {
+				styles[i] = bodyStyle;
+			}
+		}
+
 		int rownum = 1;
-		for (var dataRow : data) {
+		while (rows.hasNext()) {
+			List<?> dataRow = rows.next();
 			Row row = sheet.createRow(rownum);
-			Object[] rowValues = dataRow.toArray();
-			for (int i = 0; i < rowValues.length; i++) {
+			for (int i = 0; i < dataRow.size(); i++) {
 				Cell cell = row.createCell(i);
-				cell.setCellValue(rowValues[i] != null ? rowValues[i].toString() : null);
-				cell.setCellStyle(bodyStyle);
+				CellKind kind = i < kinds.length ? kinds[i] : CellKind.STRING;
+				setCellValue(cell, kind, dataRow.get(i));
+				cell.setCellStyle(i < styles.length ? styles[i] : bodyStyle);
 			}
 			rownum++;
 		}
 	}
 
+	private static CellKind cellKind(Class<?> type) {
+		if (Number.class.isAssignableFrom(type)) {
+			return CellKind.NUMBER;
+		} else if (Boolean.class.equals(type)) {
+			return CellKind.BOOLEAN;
+		} else if (LocalDate.class.equals(type) || java.sql.Date.class.equals(type)) {
+			return CellKind.DATE;
+		} else if (LocalDateTime.class.equals(type) || Date.class.isAssignableFrom(type)) {
+			return CellKind.DATE_TIME;
+		}
+		return CellKind.STRING;
+	}
+
+	private static void setCellValue(Cell cell, CellKind kind, Object value) {
+		if (value == null) {
+			return;
+		}
+		switch (kind) {
+			case NUMBER:
+				if (value instanceof Number number) {
+					cell.setCellValue(number.doubleValue());
+					return;
+				}
+				break;
+			case BOOLEAN:
+				if (value instanceof Boolean bool) {
+					cell.setCellValue(bool);
+					return;
+				}
+				break;
+			case DATE:
+			case DATE_TIME:
+				if (value instanceof LocalDate date) {
+					cell.setCellValue(date);
+					return;
+				} else if (value instanceof LocalDateTime dateTime) {
+					cell.setCellValue(dateTime);
+					return;
+				} else if (value instanceof Date date) {
+					cell.setCellValue(date);
+					return;
+				}
+				break;
+			default:
+				break;
+		}
+		cell.setCellValue(value.toString());
+	}
+
 	/**
 	 * Defines a cell style for header cells.
 	 *
@@ -162,7 +584,7 @@ public class ExcelExporter implements Exporter {
 	 */
 	protected CellStyle headerStyle(Workbook workbook) {
 		CellStyle headerStyle = workbook.createCellStyle();
-		XSSFFont font = ((XSSFWorkbook) workbook).createFont();
+		Font font = workbook.createFont();
 		font.setBold(true);
 		headerStyle.setFont(font);
 		return headerStyle;
@@ -180,6 +602,38 @@ public class ExcelExporter implements Exporter {
 		return bodyStyle;
 	}
 
+	/**
+	 * Defines a cell style for date cells.
+	 *
+	 * @param workbook
+	 * @param bodyStyle
+	 *            - the style of other body cells
+	 * @return
+	 */
+	protected CellStyle dateStyle(Workbook workbook, CellStyle bodyStyle) {
+		return dataFormatStyle(workbook, bodyStyle, "yyyy-mm-dd");
+	}
+
+	/**
+	 * Defines a cell style for date and time cells.
+	 *
+	 * @param workbook
+	 * @param bodyStyle
+	 *            - the style of other body cells
+	 * @return
+	 */
+	protected CellStyle dateTimeStyle(Workbook workbook, CellStyle bodyStyle) {
+		return dataFormatStyle(workbook, bodyStyle, "yyyy-mm-dd hh:mm:ss");
+	}
+
+	private CellStyle dataFormatStyle(Workbook workbook, CellStyle bodyStyle, String format) {
+		CellStyle style = workbook.createCellStyle();
+		style.cloneStyleFrom(bodyStyle);
+		DataFormat dataFormat = workbook.createDataFormat();
+		style.setDataFormat(dataFormat.getFormat(format));
+		return style;
+	}
+
 	/**
 	 * Computes the column width based on the header name.
 	 *
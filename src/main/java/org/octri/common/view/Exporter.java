@@ -16,6 +16,27 @@ public interface Exporter {
 
 	public String getFileSuffix();
 
+	/**
+	 * The value of the Content-Encoding header to send with the exported data, for exporters whose output is meant to
+	 * be decoded by the browser.
+	 *
+	 * @return content encoding, or null if the output should be sent as is
+	 */
+	default String getContentEncoding() {
+		return null;
+	}
+
+	/**
+	 * Describes the configuration that affects the exporter's output, so that caches can tell apart files written by
+	 * differently configured exporters of the same class.
+	 *
+	 * @return configuration key, an empty string if the output does not depend on configuration, or null if the
+	 *         configuration cannot be described and the output must not be cached
+	 */
+	default String getConfigurationKey() {
+		return "";
+	}
+
 	default String outputFileName(String fileName) {
 		String name = fileName.replace(" ", "_") + "_export";
 		LocalDate today = LocalDate.now();
@@ -0,0 +1,142 @@
+package org.octri.common.view;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporter that exports a gzip-compressed csv file encoded as UTF-8. Compressed bytes are collected in a large direct
+ * buffer and written to a {@link WritableByteChannel}, avoiding the intermediate copies of a stack of buffered streams.
+ *
+ * <p>
+ * By default the file is offered for download as a <code>.csv.gz</code> file. With content encoding passthrough
+ * enabled, the file is named <code>.csv</code> and {@link #getContentEncoding()} returns <code>gzip</code>, so that a
+ * controller sending the <code>Content-Encoding: gzip</code> header lets the browser decompress the download.
+ * </p>
+ */
+public class GzipCsvExporter extends CsvExporter {
+
+	/**
+	 * Default size in bytes of the buffer compressed output is collected in.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+	private static final int DEFLATE_BUFFER_SIZE = 64 * 1024;
+
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+	private boolean contentEncodingPassthrough = false;
+
+	/**
+	 * Constructs an exporter that stacks the rows of multiple tables.
+	 */
+	public GzipCsvExporter() {
+	}
+
+	/**
+	 * Constructs an exporter that lines up the rows of multiple tables by the given column.
+	 *
+	 * @param joinKey
+	 *            - name of the column present in every table
+	 */
+	public GzipCsvExporter(String joinKey) {
+		super(joinKey);
+	}
+
+	/**
+	 * Export a single table to the channel. The channel is closed when the export is complete.
+	 *
+	 * @param channel
+	 * @param table
+	 * @throws IOException
+	 */
+	public void export(WritableByteChannel channel, Table table) throws IOException {
+		export(new ByteChannelOutputStream(channel, bufferSize), table);
+	}
+
+	/**
+	 * Export multiple tables to the channel as a single wide, sparse table. The channel is closed when the export is
+	 * complete.
+	 *
+	 * @param channel
+	 * @param tables
+	 * @throws IOException
+	 */
+	public void export(WritableByteChannel channel, List<Table> tables) throws IOException {
+		export(new ByteChannelOutputStream(channel, bufferSize), tables);
+	}
+
+	@Override
+	public String getFileSuffix() {
+		return contentEncodingPassthrough ? ".csv" : ".csv.gz";
+	}
+
+	@Override
+	public String getContentEncoding() {
+		return contentEncodingPassthrough ? "gzip" : null;
+	}
+
+	@Override
+	public String getConfigurationKey() {
+		String key = super.getConfigurationKey();
+		return key == null ? null : key + ";passthrough=" + contentEncodingPassthrough;
+	}
+
+	/**
+	 * @return size in bytes of the buffer compressed output is collected in
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * Sets the size in bytes of the buffer compressed output is collected in.
+	 *
+	 * @param bufferSize
+	 */
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * @return whether the output is meant to be sent with <code>Content-Encoding: gzip</code>
+	 */
+	public boolean isContentEncodingPassthrough() {
+		return contentEncodingPassthrough;
+	}
+
+	/**
+	 * Sets whether the output is meant to be sent with <code>Content-Encoding: gzip</code>, so that the browser
+	 * decompresses it and saves a <code>.csv</code> file.
+	 *
+	 * @param contentEncodingPassthrough
+	 */
+	public void setContentEncodingPassthrough(boolean contentEncodingPassthrough) {
+		this.contentEncodingPassthrough = contentEncodingPassthrough;
+	}
+
+	/**
+	 * Creates a writer that compresses csv lines into the output stream's channel.
+	 */
+	@Override
+	protected Writer createWriter(OutputStream outputStream) throws IOException {
+		OutputStream channelStream = outputStream instanceof ByteChannelOutputStream
+				? outputStream
+				: new ByteChannelOutputStream(channel(outputStream), bufferSize);
+		GZIPOutputStream gzipStream = new GZIPOutputStream(channelStream, DEFLATE_BUFFER_SIZE);
+		return new OutputStreamWriter(gzipStream, StandardCharsets.UTF_8);
+	}
+
+	private static WritableByteChannel channel(OutputStream outputStream) {
+		if (outputStream instanceof FileOutputStream fileOutputStream) {
+			return fileOutputStream.getChannel();
+		}
+		return Channels.newChannel(outputStream);
+	}
+}
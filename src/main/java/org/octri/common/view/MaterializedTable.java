@@ -0,0 +1,42 @@
+package org.octri.common.view;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+/**
+ * An in-memory snapshot of a {@link Table}. Used to compute a table's contents on one thread and write them on
+ * another.
+ */
+record MaterializedTable(String displayName, List<String> headers, List<Class<?>> columnTypes,
+		List<List<Object>> values) implements Table {
+
+	/**
+	 * Reads all rows of the given table as typed values.
+	 *
+	 * @param table
+	 * @return a snapshot of the table
+	 */
+	static MaterializedTable of(Table table) {
+		try (Stream<List<Object>> values = table.valueStream()) {
+			return new MaterializedTable(table.displayName(), table.headers(), table.columnTypes(), values.toList());
+		}
+	}
+
+	@Override
+	public List<List<String>> rows() {
+		return values.stream()
+				.map(row -> row.stream().map(value -> value == null ? "" : value.toString()).toList())
+				.toList();
+	}
+
+	@Override
+	public Stream<List<Object>> valueStream() {
+		return values.stream();
+	}
+
+	@Override
+	public OptionalLong rowCountHint() {
+		return OptionalLong.of(values.size());
+	}
+}
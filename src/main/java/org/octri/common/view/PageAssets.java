@@ -0,0 +1,157 @@
+package org.octri.common.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Immutable set of scripts and webjars used by a view, declared once and added to the model with
+ * {@link ViewUtils#addPageAssets(Map, PageAssets)}. Scripts are resolved against the Vite manifest at startup by
+ * {@link #resolveAll()}, which {@link org.octri.common.config.ViewConfig} calls once the application is ready, so a
+ * broken manifest fails fast. Bundles created later are resolved on first use, and bundles are resolved again only if
+ * {@link ViewUtils#useViteManifest(ViteManifest, String)} installs a different manifest. Adding a resolved bundle to a
+ * model without page assets stores copies of the precomputed arrays, so changes to the model never reach the bundle.
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * private static final PageAssets REPORT_ASSETS = PageAssets.of()
+ * 		.withWebjars("datatables/js/dataTables.min.js")
+ * 		.withScripts("report.js");
+ *
+ * ViewUtils.addPageAssets(model, REPORT_ASSETS);
+ * </pre>
+ */
+public final class PageAssets {
+
+	// bundles are held weakly, so bundles that are no longer used can be collected
+	private static final Set<PageAssets> DECLARED = Collections.synchronizedSet(
+			Collections.newSetFromMap(new WeakHashMap<>()));
+	private static final PageAssets EMPTY = new PageAssets(List.of(), List.of(), List.of());
+
+	private final List<String> webjars;
+	private final List<String> scripts;
+	private final List<String> adminScripts;
+	private volatile Resolved resolved;
+
+	private record Resolved(ViteManifest manifest, String entryPointPrefix, Map<String, String[]> attributes) {
+	}
+
+	private PageAssets(List<String> webjars, List<String> scripts, List<String> adminScripts) {
+		this.webjars = webjars;
+		this.scripts = scripts;
+		this.adminScripts = adminScripts;
+		DECLARED.add(this);
+	}
+
+	/**
+	 * @return a bundle without assets
+	 */
+	public static PageAssets of() {
+		return EMPTY;
+	}
+
+	/**
+	 * Returns a copy of this bundle with additional webjars (see {@link ViewUtils#addPageWebjar(Map, String)}).
+	 *
+	 * @param names
+	 *            - webjar paths
+	 * @return a new bundle
+	 */
+	public PageAssets withWebjars(String... names) {
+		return new PageAssets(append(webjars, names), scripts, adminScripts);
+	}
+
+	/**
+	 * Returns a copy of this bundle with additional page scripts (see {@link ViewUtils#addPageScript(Map, String)}).
+	 *
+	 * @param names
+	 *            - script names
+	 * @return a new bundle
+	 */
+	public PageAssets withScripts(String... names) {
+		return new PageAssets(webjars, append(scripts, names), adminScripts);
+	}
+
+	/**
+	 * Returns a copy of this bundle with additional admin scripts (see {@link ViewUtils#addAdminScript(Map, String)}).
+	 *
+	 * @param names
+	 *            - script names
+	 * @return a new bundle
+	 */
+	public PageAssets withAdminScripts(String... names) {
+		return new PageAssets(webjars, scripts, append(adminScripts, names));
+	}
+
+	/**
+	 * Resolves every bundle that has been created against the current Vite manifest.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if a script is in the manifest but is not an entry point
+	 */
+	public static void resolveAll() {
+		List<PageAssets> bundles;
+		synchronized (DECLARED) {
+			bundles = new ArrayList<>(DECLARED);
+		}
+		bundles.forEach(PageAssets::resolve);
+	}
+
+	/**
+	 * Forgets every bundle created so far, so {@link #resolveAll()} only resolves bundles created afterwards. Lets tests
+	 * that create bundles for a different manifest start from an empty registry.
+	 */
+	static void clearDeclared() {
+		DECLARED.clear();
+	}
+
+	/**
+	 * Resolves the bundle against the current Vite manifest, so the first request that uses it does not. Resolution
+	 * also happens on first use if this is not called.
+	 *
+	 * @return this bundle
+	 */
+	public PageAssets resolve() {
+		attributes();
+		return this;
+	}
+
+	/**
+	 * Gets the model attributes of the bundle, resolving it if the Vite manifest has changed since it was last
+	 * resolved. The arrays must not be modified.
+	 *
+	 * @return model attribute arrays by attribute name
+	 */
+	Map<String, String[]> attributes() {
+		ViteManifest manifest = ViewUtils.getViteManifest();
+		String entryPointPrefix = ViewUtils.getEntryPointPrefix();
+		Resolved current = resolved;
+		if (current == null || current.manifest() != manifest
+				|| !current.entryPointPrefix().equals(entryPointPrefix)) {
+			Map<String, Object> model = new HashMap<>();
+			webjars.forEach(name -> ViewUtils.addPageWebjar(model, name));
+			scripts.forEach(name -> ViewUtils.addPageScript(model, name));
+			adminScripts.forEach(name -> ViewUtils.addAdminScript(model, name));
+
+			Map<String, String[]> attributes = new HashMap<>();
+			model.forEach((key, value) -> attributes.put(key, (String[]) value));
+			current = new Resolved(manifest, entryPointPrefix, Collections.unmodifiableMap(attributes));
+			resolved = current;
+		}
+		return current.attributes();
+	}
+
+	private static List<String> append(List<String> list, String... names) {
+		List<String> appended = new ArrayList<>(list);
+		appended.addAll(Arrays.asList(names));
+		return List.copyOf(appended);
+	}
+}
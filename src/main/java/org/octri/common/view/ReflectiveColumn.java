@@ -0,0 +1,103 @@
+package org.octri.common.view;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Map;
+
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+import org.octri.common.domain.AbstractEntity;
+
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
+
+/**
+ * A column of a {@link ReflectiveTable}. The field's getter and annotation-based behavior are resolved once, when the
+ * column is created, so reading a cell is a single method handle invocation.
+ *
+ * @param name
+ *            - field name used as the column header
+ * @param type
+ *            - boxed field type, or Long for entity associations
+ * @param getter
+ *            - method handle of type (Object)Object that reads the field
+ * @param association
+ *            - whether the field is a ManyToOne or OneToOne association exported as the associated entity's ID
+ * @param collection
+ *            - whether the field is a collection or map, exported as its size
+ */
+record ReflectiveColumn(String name, Class<?> type, MethodHandle getter, boolean association, boolean collection) {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	/**
+	 * Creates a column for the given field.
+	 *
+	 * @param field
+	 * @return the column
+	 * @throws IllegalStateException
+	 *             if the field cannot be accessed
+	 */
+	static ReflectiveColumn of(Field field) {
+		boolean association = field.isAnnotationPresent(ManyToOne.class)
+				|| field.isAnnotationPresent(OneToOne.class);
+		boolean collection = Collection.class.isAssignableFrom(field.getType())
+				|| Map.class.isAssignableFrom(field.getType());
+		Class<?> type;
+		if (association && AbstractEntity.class.isAssignableFrom(field.getType())) {
+			type = Long.class;
+		} else if (collection) {
+			type = Integer.class;
+		} else {
+			type = MethodType.methodType(field.getType()).wrap().returnType();
+		}
+		try {
+			MethodHandle getter = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+					.unreflectGetter(field)
+					.asType(GETTER_TYPE);
+			return new ReflectiveColumn(field.getName(), type, getter, association, collection);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Failed to access field: " + field.getName(), e);
+		}
+	}
+
+	/**
+	 * Reads the column's value from an instance. Associations are read as the associated entity's ID, or null if it
+	 * has not been saved yet, without initializing Hibernate proxies. Collections are read as their size if they have been loaded, and as null
+	 * otherwise.
+	 *
+	 * @param instance
+	 * @return the value, or null
+	 */
+	Object value(Object instance) {
+		Object value;
+		try {
+			value = (Object) getter.invokeExact(instance);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException("Failed to read field: " + name, e);
+		}
+		if (value == null) {
+			return null;
+		}
+		if (association) {
+			if (value instanceof HibernateProxy proxy) {
+				return proxy.getHibernateLazyInitializer().getInternalIdentifier();
+			}
+			if (value instanceof AbstractEntity ae) {
+				return ae.getId();
+			}
+		}
+		if (collection) {
+			if (!Hibernate.isInitialized(value)) {
+				return null;
+			}
+			return value instanceof Map<?, ?> map ? map.size() : ((Collection<?>) value).size();
+		}
+		return value;
+	}
+}
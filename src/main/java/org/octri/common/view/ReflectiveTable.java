@@ -1,33 +1,250 @@
 package org.octri.common.view;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.octri.common.domain.AbstractEntity;
+import org.springframework.data.jpa.domain.Specification;
 
-import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 
 /**
  * A {@link Table} implementation that uses reflection to access all fields on the class provided.
+ *
+ * <p>
+ * The table may be backed by a list or by a stream, such as one returned by a Spring Data JPA repository method. A
+ * stream-backed table converts entities to rows as they are read, so it can be exported in constant memory, but its
+ * rows can only be read once.
+ * </p>
+ *
+ * <p>
+ * Column metadata is computed once per class and shared by all tables of that class. Call {@link #preload(Class...)}
+ * at startup to compute it before the first export.
+ * </p>
  */
 public class ReflectiveTable<T> implements Table {
 
+	/**
+	 * Default number of rows whose association labels are resolved together.
+	 */
+	public static final int DEFAULT_LABEL_BATCH_SIZE = 500;
+
+	/**
+	 * Default number of rows converted together in parallel conversion mode.
+	 */
+	public static final int DEFAULT_PARALLEL_CHUNK_SIZE = 1000;
+
 	private final String displayName;
 	private final Class<T> clazz;
 	private final List<T> data;
-	private final List<Field> fields;
+	private Stream<T> stream;
+	private final List<ReflectiveColumn> columns;
+	private final List<String> headers;
+	private final List<Class<?>> columnTypes;
+	private ValueConverters valueConverters;
+	private List<Function<Object, String>> converters;
+	private Consumer<? super T> onRowConsumed;
+	private final Map<Integer, Function<Set<Object>, Map<Object, String>>> labelResolvers = new TreeMap<>();
+	private int labelBatchSize = DEFAULT_LABEL_BATCH_SIZE;
+	private ForkJoinPool conversionPool;
+	private int parallelChunkSize = DEFAULT_PARALLEL_CHUNK_SIZE;
 
 	public ReflectiveTable(String displayName, Class<T> clazz, List<T> data) {
+		this(displayName, clazz, data, ColumnSelection.all());
+	}
+
+	/**
+	 * Constructs a table that exports only the selected columns.
+	 *
+	 * @param displayName
+	 * @param clazz
+	 * @param data
+	 * @param selection
+	 *            - columns to export and their order
+	 * @throws IllegalArgumentException
+	 *             if the selection includes a column the class does not have
+	 */
+	public ReflectiveTable(String displayName, Class<T> clazz, List<T> data, ColumnSelection selection) {
+		this(displayName, clazz, data, null, selection);
+	}
+
+	/**
+	 * Constructs a table that reads its rows from the given stream. The stream is closed when the stream returned by
+	 * {@link #rowStream()} is closed.
+	 *
+	 * @param displayName
+	 * @param clazz
+	 * @param data
+	 */
+	public ReflectiveTable(String displayName, Class<T> clazz, Stream<T> data) {
+		this(displayName, clazz, data, ColumnSelection.all());
+	}
+
+	/**
+	 * Constructs a table that reads its rows from the given stream and exports only the selected columns.
+	 *
+	 * @param displayName
+	 * @param clazz
+	 * @param data
+	 * @param selection
+	 *            - columns to export and their order
+	 * @throws IllegalArgumentException
+	 *             if the selection includes a column the class does not have
+	 */
+	public ReflectiveTable(String displayName, Class<T> clazz, Stream<T> data, ColumnSelection selection) {
+		this(displayName, clazz, null, data, selection);
+	}
+
+	private ReflectiveTable(String displayName, Class<T> clazz, List<T> data, Stream<T> stream,
+			ColumnSelection selection) {
 		this.displayName = displayName;
 		this.clazz = clazz;
 		this.data = data;
-		this.fields = Arrays.stream(clazz.getDeclaredFields())
-				.filter(f -> !Modifier.isStatic(f.getModifiers()) && !Modifier.isTransient(f.getModifiers()))
-				.peek(f -> f.setAccessible(true))
-				.toList();
+		this.stream = stream;
+		ReflectiveTableMetadata metadata = ReflectiveTableMetadata.of(clazz, selection.getCollectionPolicy());
+		if (selection.isAll()) {
+			this.columns = metadata.columns();
+			this.headers = metadata.headers();
+			this.columnTypes = metadata.columnTypes();
+		} else {
+			this.columns = select(metadata, selection);
+			this.headers = columns.stream().map(ReflectiveColumn::name).toList();
+			this.columnTypes = columns.stream().<Class<?>> map(ReflectiveColumn::type).toList();
+		}
+		setValueConverters(ValueConverters.defaults());
+	}
+
+	/**
+	 * Creates a table that queries only the selected columns of an entity, instead of loading whole entities.
+	 * Associations are read as the foreign key ID without joining the associated table. Collection-valued fields are
+	 * not supported. Rows are ordered by ID and streamed from the query, so the table must be read inside a
+	 * transaction, and only once.
+	 *
+	 * @param <T>
+	 * @param entityManager
+	 * @param displayName
+	 * @param clazz
+	 *            - entity class
+	 * @param selection
+	 *            - columns to query and their order
+	 * @param specification
+	 *            - filter applied to the query, or null to export all entities
+	 * @return a table of the selected columns
+	 * @throws IllegalArgumentException
+	 *             if the selection includes a column the class does not have
+	 */
+	public static <T> Table projection(EntityManager entityManager, String displayName, Class<T> clazz,
+			ColumnSelection selection, Specification<T> specification) {
+		return projection(entityManager, displayName, clazz, selection, specification, ValueConverters.defaults());
+	}
+
+	/**
+	 * Creates a table that queries only the selected columns of an entity, formatting values with the given
+	 * converters.
+	 *
+	 * @param <T>
+	 * @param entityManager
+	 * @param displayName
+	 * @param clazz
+	 *            - entity class
+	 * @param selection
+	 *            - columns to query and their order
+	 * @param specification
+	 *            - filter applied to the query, or null to export all entities
+	 * @param valueConverters
+	 *            - converters used to turn values into strings
+	 * @return a table of the selected columns
+	 * @throws IllegalArgumentException
+	 *             if the selection includes a column the class does not have
+	 * @see #projection(EntityManager, String, Class, ColumnSelection, Specification)
+	 */
+	public static <T> Table projection(EntityManager entityManager, String displayName, Class<T> clazz,
+			ColumnSelection selection, Specification<T> specification, ValueConverters valueConverters) {
+		List<ReflectiveColumn> columns = select(ReflectiveTableMetadata.of(clazz), selection);
+
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = builder.createTupleQuery();
+		Root<T> root = query.from(clazz);
+		query.multiselect(columns.stream().<Selection<?>> map(column -> {
+			// associations are typed as Long when they are exported as the associated entity's ID
+			if (column.association() && column.type() == Long.class) {
+				return root.get(column.name()).get("id");
+			}
+			return root.get(column.name());
+		}).toList());
+		if (specification != null) {
+			Predicate predicate = specification.toPredicate(root, query, builder);
+			if (predicate != null) {
+				query.where(predicate);
+			}
+		}
+		if (AbstractEntity.class.isAssignableFrom(clazz)) {
+			query.orderBy(builder.asc(root.get("id")));
+		}
+
+		return new TupleTable(displayName, columns.stream().map(ReflectiveColumn::name).toList(),
+				columns.stream().<Class<?>> map(ReflectiveColumn::type).toList(),
+				entityManager.createQuery(query).getResultStream(), valueConverters);
+	}
+
+	/**
+	 * Creates a label resolver for {@link #setLabelResolver(String, Function)} that looks up the labels of an entity by
+	 * ID with a single query per batch.
+	 *
+	 * @param entityManager
+	 * @param entityClass
+	 *            - associated entity class, with an {@code id} attribute
+	 * @param labelAttribute
+	 *            - attribute exported as the label
+	 * @return a resolver mapping IDs to labels
+	 */
+	public static Function<Set<Object>, Map<Object, String>> labelQuery(EntityManager entityManager,
+			Class<?> entityClass, String labelAttribute) {
+		return ids -> {
+			CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+			CriteriaQuery<Tuple> query = builder.createTupleQuery();
+			Root<?> root = query.from(entityClass);
+			query.multiselect(root.get("id"), root.get(labelAttribute)).where(root.get("id").in(ids));
+
+			Map<Object, String> labels = new HashMap<>();
+			for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+				labels.put(tuple.get(0), Objects.toString(tuple.get(1), ""));
+			}
+			return labels;
+		};
+	}
+
+	/**
+	 * Computes and caches the column metadata of the given classes, so the first table built for each class does not
+	 * pay for reflection.
+	 *
+	 * @param classes
+	 *            - classes that will be exported
+	 */
+	public static void preload(Class<?>... classes) {
+		for (Class<?> clazz : classes) {
+			ReflectiveTableMetadata.of(clazz);
+		}
 	}
 
 	@Override
@@ -37,39 +254,299 @@ public class ReflectiveTable<T> implements Table {
 
 	@Override
 	public List<String> headers() {
-		return fields.stream().map(Field::getName).toList();
+		return headers;
 	}
 
+	/**
+	 * Sets a callback that is called with each entity once its row has been read from {@link #rowStream()} or
+	 * {@link #valueStream()}. Use it to release entities that are no longer needed, for example with
+	 * {@code entityManager::detach}, so the persistence context does not grow with the size of the export.
+	 *
+	 * @param onRowConsumed
+	 *            - callback, or null for none
+	 */
+	public void setOnRowConsumed(Consumer<? super T> onRowConsumed) {
+		this.onRowConsumed = onRowConsumed;
+	}
+
+	/**
+	 * Sets the converters used to turn values into strings in {@link #rows()} and {@link #rowStream()}. A converter is
+	 * resolved for each column from its {@link #columnTypes() type} when this is called, and again when a label
+	 * resolver is set or removed.
+	 *
+	 * @param valueConverters
+	 *            - converter registry, such as the {@link ValueConverters} bean configured by
+	 *            {@link org.octri.common.config.ViewConfig}
+	 */
+	public void setValueConverters(ValueConverters valueConverters) {
+		this.valueConverters = valueConverters;
+		this.converters = columnTypes().stream().map(valueConverters::converterFor).toList();
+	}
+
+	/**
+	 * Exports an association column as a label instead of the associated entity's ID. Labels are resolved in batches of
+	 * rows, with one call to the resolver per batch, so exporting labels does not load each associated entity.
+	 *
+	 * @param column
+	 *            - name of a ManyToOne or OneToOne column
+	 * @param resolver
+	 *            - function mapping a set of IDs to their labels, such as one created by
+	 *            {@link #labelQuery(EntityManager, Class, String)}, or null to export IDs
+	 * @throws IllegalArgumentException
+	 *             if the column is not an exported association
+	 */
+	public void setLabelResolver(String column, Function<Set<Object>, Map<Object, String>> resolver) {
+		int index = headers.indexOf(column);
+		if (index < 0 || !columns.get(index).association()) {
+			throw new IllegalArgumentException("Column '" + column + "' is not an association");
+		}
+		if (resolver == null) {
+			labelResolvers.remove(index);
+		} else {
+			labelResolvers.put(index, resolver);
+		}
+		// labelled columns hold strings instead of IDs
+		setValueConverters(valueConverters);
+	}
+
+	/**
+	 * @param labelBatchSize
+	 *            - number of rows whose association labels are resolved together
+	 */
+	public void setLabelBatchSize(int labelBatchSize) {
+		this.labelBatchSize = labelBatchSize;
+	}
+
+	/**
+	 * Converts rows to values on the given pool instead of the thread reading the rows, using the default chunk size.
+	 *
+	 * @param pool
+	 *            - pool rows are converted on, or null to convert on the reading thread
+	 * @see #setParallelConversion(ForkJoinPool, int)
+	 */
+	public void setParallelConversion(ForkJoinPool pool) {
+		setParallelConversion(pool, DEFAULT_PARALLEL_CHUNK_SIZE);
+	}
+
+	/**
+	 * Converts rows to values on the given pool instead of the thread reading the rows. Entities are read from the
+	 * backing data in chunks on the reading thread, and up to twice the pool's parallelism chunks are converted at a
+	 * time. Rows are returned in order as soon as their chunk is converted, so conversion overlaps with writing.
+	 * Association labels and {@link #setOnRowConsumed(Consumer)} callbacks are still handled on the reading thread, so
+	 * they may use the reading thread's persistence context.
+	 *
+	 * <p>
+	 * Conversion only reads fields, so entities must not depend on lazy loading. Associations and collections are read
+	 * without being initialized.
+	 * </p>
+	 *
+	 * @param pool
+	 *            - pool rows are converted on, or null to convert on the reading thread
+	 * @param chunkSize
+	 *            - number of rows converted together
+	 */
+	public void setParallelConversion(ForkJoinPool pool, int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be positive");
+		}
+		this.conversionPool = pool;
+		this.parallelChunkSize = chunkSize;
+	}
+
+	/**
+	 * For a list-backed table, returns a read-only view that converts an entity to strings only when its row is read.
+	 * Rows are not retained, so each read converts the entity again. A stream-backed table, or a table with label
+	 * resolvers, reads its rows into a list.
+	 */
 	@Override
 	public List<List<String>> rows() {
-		return data.stream()
-				.map(instance -> fieldValues(instance))
+		if (data != null && labelResolvers.isEmpty()) {
+			return new RowView();
+		}
+		try (Stream<List<String>> rows = rowStream()) {
+			return rows.toList();
+		}
+	}
+
+	@Override
+	public Stream<List<String>> rowStream() {
+		if (!labelResolvers.isEmpty()) {
+			return valueStream().map(this::stringValues);
+		}
+		if (conversionPool != null) {
+			return Chunks.mapOrdered(Chunks.of(source(), parallelChunkSize),
+					chunk -> Map.entry(chunk, chunk.stream().map(this::fieldValues).toList()),
+					conversionPool, conversionWindow())
+					.flatMap(converted -> {
+						converted.getKey().forEach(this::release);
+						return converted.getValue().stream();
+					});
+		}
+		return source().map(instance -> consumed(instance, fieldValues(instance)));
+	}
+
+	@Override
+	public Stream<List<Object>> valueStream() {
+		if (conversionPool != null) {
+			return Chunks.mapOrdered(Chunks.of(source(), parallelChunkSize),
+					chunk -> Map.entry(chunk, extract(chunk)), conversionPool, conversionWindow())
+					.flatMap(converted -> finish(converted.getKey(), converted.getValue()).stream());
+		}
+		if (!labelResolvers.isEmpty()) {
+			return Chunks.of(source(), labelBatchSize).flatMap(chunk -> finish(chunk, extract(chunk)).stream());
+		}
+		return source().map(instance -> consumed(instance, typedValues(instance)));
+	}
+
+	/**
+	 * Column types are the declared field types, with primitives boxed. Entity associations are exported as the
+	 * associated entity's ID, so their type is Long, or as a String if they have a label resolver. Collections are
+	 * exported as their size.
+	 */
+	@Override
+	public List<Class<?>> columnTypes() {
+		if (labelResolvers.isEmpty()) {
+			return columnTypes;
+		}
+		List<Class<?>> types = new ArrayList<>(columnTypes);
+		labelResolvers.keySet().forEach(index -> types.set(index, String.class));
+		return Collections.unmodifiableList(types);
+	}
+
+	@Override
+	public int columnCount() {
+		return columns.size();
+	}
+
+	@Override
+	public OptionalLong rowCountHint() {
+		return data != null ? OptionalLong.of(data.size()) : OptionalLong.empty();
+	}
+
+	/**
+	 * @return a stream over the backing data
+	 * @throws IllegalStateException
+	 *             if the table is backed by a stream that has already been read
+	 */
+	private synchronized Stream<T> source() {
+		if (data != null) {
+			return data.stream();
+		}
+		if (stream == null) {
+			throw new IllegalStateException("The rows of a stream-backed table can only be read once");
+		}
+		Stream<T> source = stream;
+		stream = null;
+		return source;
+	}
+
+	private static List<ReflectiveColumn> select(ReflectiveTableMetadata metadata, ColumnSelection selection) {
+		return selection.apply(metadata.headers()).stream()
+				.map(name -> metadata.columns().get(metadata.headers().indexOf(name)))
 				.toList();
 	}
 
+	private <R> R consumed(T instance, R row) {
+		release(instance);
+		return row;
+	}
+
+	private void release(T instance) {
+		if (onRowConsumed != null) {
+			onRowConsumed.accept(instance);
+		}
+	}
+
 	private List<String> fieldValues(T instance) {
-		return fields.stream().map(field -> stringValue(instance, field)).toList();
+		List<String> values = new ArrayList<>(columns.size());
+		for (int i = 0; i < columns.size(); i++) {
+			Object value = columns.get(i).value(instance);
+			values.add(value != null ? converters.get(i).apply(value) : "");
+		}
+		return Collections.unmodifiableList(values);
+	}
+
+	private List<String> stringValues(List<Object> row) {
+		List<String> values = new ArrayList<>(row.size());
+		for (int i = 0; i < row.size(); i++) {
+			Object value = row.get(i);
+			values.add(value != null ? converters.get(i).apply(value) : "");
+		}
+		return Collections.unmodifiableList(values);
+	}
+
+	private List<Object> typedValues(T instance) {
+		List<Object> values = new ArrayList<>(columns.size());
+		for (ReflectiveColumn column : columns) {
+			values.add(column.value(instance));
+		}
+		return Collections.unmodifiableList(values);
+	}
+
+	private int conversionWindow() {
+		return conversionPool.getParallelism() * 2;
+	}
+
+	/**
+	 * Reads the values of a chunk of entities. Safe to call on any thread.
+	 */
+	private List<Object[]> extract(List<T> chunk) {
+		List<Object[]> rows = new ArrayList<>(chunk.size());
+		for (T instance : chunk) {
+			Object[] row = new Object[columns.size()];
+			for (int i = 0; i < row.length; i++) {
+				row[i] = columns.get(i).value(instance);
+			}
+			rows.add(row);
+		}
+		return rows;
 	}
 
-	private String stringValue(T instance, Field field) {
-		try {
-			Object value = field.get(instance);
-			if (value == null) {
-				return "";
+	/**
+	 * Replaces association IDs with labels resolved for the whole chunk and releases the chunk's entities. Called on
+	 * the reading thread.
+	 */
+	private List<List<Object>> finish(List<T> chunk, List<Object[]> rows) {
+		for (Map.Entry<Integer, Function<Set<Object>, Map<Object, String>>> resolver : labelResolvers.entrySet()) {
+			int index = resolver.getKey();
+			Set<Object> ids = new HashSet<>();
+			for (Object[] row : rows) {
+				if (row[index] != null) {
+					ids.add(row[index]);
+				}
 			}
-			if (field.isAnnotationPresent(ManyToOne.class)
-					|| field.isAnnotationPresent(OneToOne.class)) {
-				if (value instanceof AbstractEntity ae) {
-					return ae.getId() != null ? ae.getId().toString() : value.toString();
+			Map<Object, String> labels = ids.isEmpty() ? Map.of() : resolver.getValue().apply(ids);
+			for (Object[] row : rows) {
+				if (row[index] != null) {
+					row[index] = labels.getOrDefault(row[index], row[index].toString());
 				}
 			}
-			return value.toString();
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException("Failed to read field: " + field.getName(), e);
 		}
+
+		List<List<Object>> values = new ArrayList<>(rows.size());
+		for (int r = 0; r < rows.size(); r++) {
+			values.add(consumed(chunk.get(r), Collections.unmodifiableList(Arrays.asList(rows.get(r)))));
+		}
+		return values;
 	}
 
 	public Class<T> getReflectiveClass() {
 		return clazz;
 	}
+
+	/**
+	 * Read-only view over the backing list that converts each entity when its row is read.
+	 */
+	private class RowView extends AbstractList<List<String>> {
+
+		@Override
+		public List<String> get(int index) {
+			return fieldValues(data.get(index));
+		}
+
+		@Override
+		public int size() {
+			return data.size();
+		}
+	}
 }
@@ -0,0 +1,68 @@
+package org.octri.common.view;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.octri.common.view.ColumnSelection.CollectionPolicy;
+
+/**
+ * Column metadata of a class exported by {@link ReflectiveTable}. Metadata is computed once per class and collection
+ * policy, and shared by all tables of that class.
+ *
+ * @param columns
+ *            - columns for the non-static, non-transient declared fields
+ * @param headers
+ *            - column names
+ * @param columnTypes
+ *            - column types
+ */
+record ReflectiveTableMetadata(List<ReflectiveColumn> columns, List<String> headers, List<Class<?>> columnTypes) {
+
+	private static final ClassValue<Map<CollectionPolicy, ReflectiveTableMetadata>> METADATA = new ClassValue<>() {
+
+		@Override
+		protected Map<CollectionPolicy, ReflectiveTableMetadata> computeValue(Class<?> clazz) {
+			List<ReflectiveColumn> columns = Arrays.stream(clazz.getDeclaredFields())
+					.filter(f -> !Modifier.isStatic(f.getModifiers()) && !Modifier.isTransient(f.getModifiers()))
+					.map(ReflectiveColumn::of)
+					.toList();
+			Map<CollectionPolicy, ReflectiveTableMetadata> metadata = new EnumMap<>(CollectionPolicy.class);
+			metadata.put(CollectionPolicy.SUMMARIZE, create(columns));
+			metadata.put(CollectionPolicy.SKIP,
+					create(columns.stream().filter(column -> !column.collection()).toList()));
+			return metadata;
+		}
+	};
+
+	/**
+	 * Gets the metadata of a class, computing it on first use. Collection-valued columns are left out. Safe to call
+	 * from multiple threads.
+	 *
+	 * @param clazz
+	 * @return the class's metadata
+	 */
+	static ReflectiveTableMetadata of(Class<?> clazz) {
+		return of(clazz, CollectionPolicy.SKIP);
+	}
+
+	/**
+	 * Gets the metadata of a class for a collection policy, computing it on first use. Safe to call from multiple
+	 * threads.
+	 *
+	 * @param clazz
+	 * @param collectionPolicy
+	 * @return the class's metadata
+	 */
+	static ReflectiveTableMetadata of(Class<?> clazz, CollectionPolicy collectionPolicy) {
+		return METADATA.get(clazz).get(collectionPolicy);
+	}
+
+	private static ReflectiveTableMetadata create(List<ReflectiveColumn> columns) {
+		return new ReflectiveTableMetadata(columns,
+				columns.stream().map(ReflectiveColumn::name).toList(),
+				columns.stream().<Class<?>> map(ReflectiveColumn::type).toList());
+	}
+}
@@ -0,0 +1,106 @@
+package org.octri.common.view;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@link Table} wrapper whose first rows have already been read, so they can be inspected before the table is
+ * exported. The sampled rows are replayed ahead of the remaining rows, which are read from the original table's open
+ * value stream. Like a stream-backed table, its values can only be read once.
+ */
+class SampledTable implements Table {
+
+	private final Table table;
+	private final List<List<Object>> sample;
+	private final Stream<List<Object>> values;
+	private final Iterator<List<Object>> remaining;
+	private boolean consumed = false;
+
+	private SampledTable(Table table, List<List<Object>> sample, Stream<List<Object>> values,
+			Iterator<List<Object>> remaining) {
+		this.table = table;
+		this.sample = sample;
+		this.values = values;
+		this.remaining = remaining;
+	}
+
+	/**
+	 * Reads up to the given number of rows from the table's value stream.
+	 *
+	 * @param table
+	 * @param sampleSize
+	 *            - maximum number of rows to read
+	 * @return the sampled table
+	 */
+	static SampledTable of(Table table, int sampleSize) {
+		Stream<List<Object>> values = table.valueStream();
+		Iterator<List<Object>> iterator = values.iterator();
+		List<List<Object>> sample = new ArrayList<>();
+		while (sample.size() < sampleSize && iterator.hasNext()) {
+			sample.add(iterator.next());
+		}
+		return new SampledTable(table, sample, values, iterator);
+	}
+
+	/**
+	 * @return the rows read so far
+	 */
+	List<List<Object>> sample() {
+		return sample;
+	}
+
+	@Override
+	public String displayName() {
+		return table.displayName();
+	}
+
+	@Override
+	public List<String> headers() {
+		return table.headers();
+	}
+
+	@Override
+	public List<List<String>> rows() {
+		try (Stream<List<String>> rows = rowStream()) {
+			return rows.toList();
+		}
+	}
+
+	@Override
+	public Stream<List<String>> rowStream() {
+		return valueStream()
+				.map(row -> row.stream().map(value -> value == null ? "" : value.toString()).toList());
+	}
+
+	@Override
+	public synchronized Stream<List<Object>> valueStream() {
+		if (consumed) {
+			throw new IllegalStateException("The rows of a sampled table can only be read once");
+		}
+		consumed = true;
+		Stream<List<Object>> rest = StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(remaining, Spliterator.ORDERED), false);
+		return Stream.concat(sample.stream(), rest).onClose(values::close);
+	}
+
+	@Override
+	public List<Class<?>> columnTypes() {
+		return table.columnTypes();
+	}
+
+	@Override
+	public int columnCount() {
+		return table.columnCount();
+	}
+
+	@Override
+	public OptionalLong rowCountHint() {
+		return table.rowCountHint();
+	}
+}
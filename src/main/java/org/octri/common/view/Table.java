@@ -1,6 +1,9 @@
 package org.octri.common.view;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
 
 /**
  * An interface for displaying or exporting tabular data
@@ -28,4 +31,53 @@ public interface Table {
 	 */
 	public List<List<String>> rows();
 
+	/**
+	 * The rows of data as a lazily evaluated stream. Exporters read rows through this method, so tables backed by
+	 * large or streaming sources should override it to produce one row at a time instead of materializing
+	 * {@link #rows()}. Callers must close the returned stream.
+	 *
+	 * @return stream of rows
+	 */
+	default Stream<List<String>> rowStream() {
+		return rows().stream();
+	}
+
+	/**
+	 * The rows of data as typed values, in the same order as {@link #rowStream()}. Each value is an instance of the
+	 * corresponding entry of {@link #columnTypes()}, or null. Exporters that support native types, such as numbers and
+	 * dates, read rows through this method. Callers must close the returned stream.
+	 *
+	 * @return stream of rows of typed values
+	 */
+	default Stream<List<Object>> valueStream() {
+		return rowStream().map(Collections::<Object> unmodifiableList);
+	}
+
+	/**
+	 * The type of the values in each column. Defaults to String for every column.
+	 *
+	 * @return column types
+	 */
+	default List<Class<?>> columnTypes() {
+		return Collections.<Class<?>> nCopies(columnCount(), String.class);
+	}
+
+	/**
+	 * The number of columns in each row.
+	 *
+	 * @return column count
+	 */
+	default int columnCount() {
+		return headers().size();
+	}
+
+	/**
+	 * The number of rows, if it is known without reading the data.
+	 *
+	 * @return row count, or empty if unknown
+	 */
+	default OptionalLong rowCountHint() {
+		return OptionalLong.empty();
+	}
+
 }
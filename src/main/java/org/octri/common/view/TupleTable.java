@@ -0,0 +1,85 @@
+package org.octri.common.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import jakarta.persistence.Tuple;
+
+/**
+ * A table backed by the results of a JPA tuple query. Like a stream-backed {@link ReflectiveTable}, its rows can only
+ * be read once.
+ */
+class TupleTable implements Table {
+
+	private final String displayName;
+	private final List<String> headers;
+	private final List<Class<?>> columnTypes;
+	private final List<Function<Object, String>> converters;
+	private Stream<Tuple> tuples;
+
+	TupleTable(String displayName, List<String> headers, List<Class<?>> columnTypes, Stream<Tuple> tuples,
+			ValueConverters valueConverters) {
+		this.displayName = displayName;
+		this.headers = headers;
+		this.columnTypes = columnTypes;
+		this.tuples = tuples;
+		this.converters = columnTypes.stream().map(valueConverters::converterFor).toList();
+	}
+
+	@Override
+	public String displayName() {
+		return displayName;
+	}
+
+	@Override
+	public List<String> headers() {
+		return headers;
+	}
+
+	@Override
+	public List<List<String>> rows() {
+		try (Stream<List<String>> rows = rowStream()) {
+			return rows.toList();
+		}
+	}
+
+	@Override
+	public Stream<List<String>> rowStream() {
+		return valueStream().map(row -> {
+			List<String> values = new ArrayList<>(row.size());
+			for (int i = 0; i < row.size(); i++) {
+				Object value = row.get(i);
+				values.add(value != null ? converters.get(i).apply(value) : "");
+			}
+			return Collections.unmodifiableList(values);
+		});
+	}
+
+	@Override
+	public Stream<List<Object>> valueStream() {
+		return source().map(tuple -> {
+			List<Object> values = new ArrayList<>(headers.size());
+			for (int i = 0; i < headers.size(); i++) {
+				values.add(tuple.get(i));
+			}
+			return Collections.unmodifiableList(values);
+		});
+	}
+
+	@Override
+	public List<Class<?>> columnTypes() {
+		return columnTypes;
+	}
+
+	private synchronized Stream<Tuple> source() {
+		if (tuples == null) {
+			throw new IllegalStateException("The rows of a query-backed table can only be read once");
+		}
+		Stream<Tuple> source = tuples;
+		tuples = null;
+		return source;
+	}
+}
@@ -0,0 +1,169 @@
+package org.octri.common.view;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+import org.octri.common.config.ViewConfig;
+import org.octri.common.domain.AbstractEntity;
+
+/**
+ * Registry of the functions used to convert exported values to strings. A converter is resolved once per column from
+ * the column's type, so converting a cell does not dispatch on its type again.
+ *
+ * <p>
+ * Built-in converters format {@link LocalDate} and {@link java.sql.Date} values with the date pattern, and
+ * {@link LocalDateTime} and other {@link Date} values with the date-time pattern. A blank pattern leaves those values
+ * in their ISO form, or as {@code toString()} for {@link Date}, as the view templates do. Enums implementing {@link Labelled} with their label, {@link AbstractEntity} references with their ID, and
+ * numbers without exponent notation. Other values are converted with {@code toString()}. Converters registered with
+ * {@link #register(Class, Function)} take precedence over the built-in ones.
+ * </p>
+ *
+ * <p>
+ * Converters are shared between threads, so registered functions must be thread-safe.
+ * </p>
+ *
+ * <p>
+ * {@link #defaults()} only knows the default {@link ViewConfig} patterns. To format exports with the application's
+ * configured patterns, use the {@code ValueConverters} bean defined by {@link ViewConfig}.
+ * </p>
+ */
+public class ValueConverters {
+
+	private static final ValueConverters DEFAULTS = new ValueConverters(new ViewConfig());
+
+	private final DateTimeFormatter dateFormatter;
+	private final DateTimeFormatter dateTimeFormatter;
+	private final Map<Class<?>, Function<Object, String>> registered = new LinkedHashMap<>();
+
+	/**
+	 * Constructs a registry that formats dates with the given patterns.
+	 *
+	 * @param datePattern
+	 *            - pattern for LocalDate and java.sql.Date values, or blank for ISO dates
+	 * @param dateTimePattern
+	 *            - pattern for LocalDateTime and other Date values, or blank for ISO date-times
+	 */
+	public ValueConverters(String datePattern, String dateTimePattern) {
+		this.dateFormatter = formatter(datePattern);
+		this.dateTimeFormatter = formatter(dateTimePattern);
+	}
+
+	/**
+	 * Constructs a registry that formats dates with the patterns configured in the given view configuration.
+	 *
+	 * @param viewConfig
+	 */
+	public ValueConverters(ViewConfig viewConfig) {
+		this(viewConfig.getDatePattern(), viewConfig.getDateTimePattern());
+	}
+
+	/**
+	 * @return a registry using the default {@link ViewConfig} date patterns, not the configured ones, and no
+	 *         registered converters
+	 */
+	public static ValueConverters defaults() {
+		return DEFAULTS;
+	}
+
+	/**
+	 * Registers a converter for a type and its subtypes. Registries are immutable, so this returns a new registry.
+	 *
+	 * @param <V>
+	 * @param type
+	 * @param converter
+	 *            - function converting a non-null value to a string
+	 * @return a copy of this registry with the converter registered
+	 */
+	public <V> ValueConverters register(Class<V> type, Function<? super V, String> converter) {
+		ValueConverters copy = new ValueConverters(dateFormatter, dateTimeFormatter);
+		copy.registered.putAll(registered);
+		copy.registered.put(type, value -> converter.apply(type.cast(value)));
+		return copy;
+	}
+
+	private ValueConverters(DateTimeFormatter dateFormatter, DateTimeFormatter dateTimeFormatter) {
+		this.dateFormatter = dateFormatter;
+		this.dateTimeFormatter = dateTimeFormatter;
+	}
+
+	/**
+	 * Resolves the converter for values of the given type. For types without a specific converter, such as Object,
+	 * the converter is resolved from each value's class.
+	 *
+	 * @param type
+	 *            - column type
+	 * @return a function converting non-null values of the type to strings
+	 */
+	public Function<Object, String> converterFor(Class<?> type) {
+		Function<Object, String> converter = specificConverter(type);
+		if (converter != null) {
+			return converter;
+		}
+		if (type.isInterface() || type == Object.class || type == Number.class) {
+			return value -> {
+				Function<Object, String> valueConverter = specificConverter(value.getClass());
+				return valueConverter != null ? valueConverter.apply(value) : value.toString();
+			};
+		}
+		return Object::toString;
+	}
+
+	private Function<Object, String> specificConverter(Class<?> type) {
+		for (Map.Entry<Class<?>, Function<Object, String>> entry : registered.entrySet()) {
+			if (entry.getKey().isAssignableFrom(type)) {
+				return entry.getValue();
+			}
+		}
+		if (LocalDate.class.equals(type)) {
+			return dateFormatter == null ? Object::toString : value -> dateFormatter.format((LocalDate) value);
+		}
+		if (LocalDateTime.class.equals(type)) {
+			return dateTimeFormatter == null ? Object::toString
+					: value -> dateTimeFormatter.format((LocalDateTime) value);
+		}
+		if (java.sql.Date.class.isAssignableFrom(type)) {
+			return dateFormatter == null ? Object::toString
+					: value -> dateFormatter.format(((java.sql.Date) value).toLocalDate());
+		}
+		if (Date.class.isAssignableFrom(type)) {
+			// java.sql types do not all support toInstant
+			return dateTimeFormatter == null ? Object::toString
+					: value -> dateTimeFormatter
+							.format(Instant.ofEpochMilli(((Date) value).getTime()).atZone(ZoneId.systemDefault()));
+		}
+		if (Enum.class.isAssignableFrom(type) && Labelled.class.isAssignableFrom(type)) {
+			return value -> ((Labelled) value).getLabel();
+		}
+		if (AbstractEntity.class.isAssignableFrom(type)) {
+			return value -> String.valueOf(((AbstractEntity) value).getId());
+		}
+		if (BigDecimal.class.equals(type)) {
+			return value -> ((BigDecimal) value).toPlainString();
+		}
+		if (Double.class.equals(type) || Float.class.equals(type)) {
+			return ValueConverters::plainDecimal;
+		}
+		return null;
+	}
+
+	private static DateTimeFormatter formatter(String pattern) {
+		return StringUtils.isBlank(pattern) ? null : DateTimeFormatter.ofPattern(pattern);
+	}
+
+	private static String plainDecimal(Object value) {
+		double number = ((Number) value).doubleValue();
+		if (!Double.isFinite(number)) {
+			return value.toString();
+		}
+		return new BigDecimal(value.toString()).toPlainString();
+	}
+}
@@ -39,6 +39,14 @@ public class ViewUtils {
 		ViewUtils.entryPointPrefix = entryPointPrefix;
 	}
 
+	static ViteManifest getViteManifest() {
+		return viteManifest;
+	}
+
+	static String getEntryPointPrefix() {
+		return entryPointPrefix;
+	}
+
 	/**
 	 * Utility method for creating a map object with a nested entity. Useful for using entity components in different
 	 * contexts.
@@ -86,6 +94,24 @@ public class ViewUtils {
 		addArrayProperty(model, PAGE_WEBJAR_ATTRIBUTE, scriptName);
 	}
 
+	/**
+	 * Adds a bundle of page assets to the model. If the model has none of the bundle's attributes, the bundle's
+	 * precomputed arrays are stored as is; otherwise they are merged into the existing arrays.
+	 *
+	 * @param model
+	 * @param assets
+	 */
+	public static void addPageAssets(Map<String, Object> model, PageAssets assets) {
+		for (var attribute : assets.attributes().entrySet()) {
+			if (model.get(attribute.getKey()) == null) {
+				// the bundle's arrays are shared by every request
+				model.put(attribute.getKey(), attribute.getValue().clone());
+			} else {
+				addArrayProperty(model, attribute.getKey(), attribute.getValue());
+			}
+		}
+	}
+
 	/**
 	 * Adds the given entrypoint and its dependencies to the module's asset arrays.
 	 *
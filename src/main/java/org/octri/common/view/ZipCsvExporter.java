@@ -0,0 +1,265 @@
+package org.octri.common.view;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.opencsv.CSVWriter;
+
+/**
+ * Exporter that exports a zip archive containing a csv file for each table. Rows are written straight into the
+ * archive as they are read, so nothing is buffered in full.
+ *
+ * <p>
+ * When an executor is provided with {@link #setExecutor(Executor)}, the csv file for each table is written to a
+ * temporary file concurrently on the executor, and the files are then added to the archive in table order. Entries in a
+ * zip stream must be compressed one after another, so this overlaps reading the tables rather than compressing them.
+ * </p>
+ */
+public class ZipCsvExporter implements Exporter {
+
+	private static final String CSV_SUFFIX = ".csv";
+
+	private final CsvExporter csvExporter;
+	private Map<String, Integer> entryNames = new HashMap<String, Integer>();
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+	private Executor executor;
+
+	/**
+	 * Constructs an exporter that writes each entry with a default {@link CsvExporter}.
+	 */
+	public ZipCsvExporter() {
+		this(new CsvExporter());
+	}
+
+	/**
+	 * Constructs an exporter that writes each entry with the given {@link CsvExporter}.
+	 *
+	 * @param csvExporter
+	 */
+	public ZipCsvExporter(CsvExporter csvExporter) {
+		this.csvExporter = csvExporter;
+	}
+
+	/**
+	 * Export the table as a zip archive with a single entry.
+	 */
+	@Override
+	public void export(OutputStream outputStream, Table table) throws IOException {
+		export(outputStream, List.of(table));
+	}
+
+	/**
+	 * Export the tables as a zip archive. Each table will be a separate entry in the archive.
+	 */
+	@Override
+	public void export(OutputStream outputStream, List<Table> tables) throws IOException {
+		this.reset();
+		ZipOutputStream zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+		zip.setLevel(compressionLevel);
+
+		if (executor != null && tables.size() > 1) {
+			appendEntriesConcurrently(zip, tables);
+		} else {
+			for (Table table : tables) {
+				appendEntry(zip, table);
+			}
+		}
+		zip.finish();
+		zip.flush();
+	}
+
+	@Override
+	public String getFileSuffix() {
+		return ".zip";
+	}
+
+	@Override
+	public String getConfigurationKey() {
+		// entries hold one table each, so the join key of the csv exporter does not affect them
+		return "compressionLevel=" + compressionLevel + ";csv=" + csvExporter.getClass().getName();
+	}
+
+	/**
+	 * @return the deflate compression level
+	 */
+	public int getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	/**
+	 * Sets the deflate compression level, from 0 to 9.
+	 *
+	 * @param compressionLevel
+	 */
+	public void setCompressionLevel(int compressionLevel) {
+		this.compressionLevel = compressionLevel;
+	}
+
+	/**
+	 * @return the executor used to write entries concurrently, or null if entries are written sequentially
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the executor used to write the csv file for each table concurrently when exporting multiple tables.
+	 *
+	 * @param executor
+	 *            - executor to use, or null to write entries sequentially
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	protected void reset() {
+		this.entryNames = new HashMap<String, Integer>();
+	}
+
+	/**
+	 * Append an entry for the table to the archive.
+	 *
+	 * @param zip
+	 *            - archive to modify
+	 * @param table
+	 *            - the table implementation
+	 * @throws IOException
+	 */
+	protected void appendEntry(ZipOutputStream zip, Table table) throws IOException {
+		zip.putNextEntry(new ZipEntry(createEntryName(table.displayName())));
+		writeCsv(new NonClosingOutputStream(zip), table);
+		zip.closeEntry();
+	}
+
+	/**
+	 * Writes the csv file for every table to a temporary file concurrently on the executor, then appends an entry for
+	 * each table in order.
+	 *
+	 * @param zip
+	 *            - archive to modify
+	 * @param tables
+	 *            - the tables to append
+	 * @throws IOException
+	 */
+	protected void appendEntriesConcurrently(ZipOutputStream zip, List<Table> tables) throws IOException {
+		List<String> names = tables.stream().map(table -> createEntryName(table.displayName())).toList();
+		List<CompletableFuture<Path>> files = tables.stream()
+				.map(table -> CompletableFuture.supplyAsync(() -> writeTempFile(table), executor))
+				.toList();
+		try {
+			for (int i = 0; i < files.size(); i++) {
+				Path file = files.get(i).join();
+				zip.putNextEntry(new ZipEntry(names.get(i)));
+				Files.copy(file, zip);
+				zip.closeEntry();
+			}
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof UncheckedIOException cause) {
+				throw cause.getCause();
+			} else if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IOException("Failed to write table contents", e.getCause());
+		} finally {
+			files.forEach(file -> file.whenComplete((path, error) -> deleteQuietly(path)));
+		}
+	}
+
+	/**
+	 * Construct a valid entry name. Characters that are not allowed in file names on common platforms are removed,
+	 * blank names are replaced with "empty", and a version is appended to names that have already been used in the
+	 * archive.
+	 *
+	 * @param label
+	 * @return entry name including the csv file suffix
+	 */
+	protected String createEntryName(String label) {
+		var safeName = String.valueOf(label).replaceAll("[\\\\/:*?\"<>|\\[\\]\\p{Cntrl}]", " ");
+		// strip out double spaces
+		var name = safeName.replaceAll(" {2,}", " ").trim();
+
+		if (name.equals("")) {
+			name = "empty";
+		}
+
+		// Append version if there is an entry with the same name, until the versioned name is unused too.
+		var entryName = name;
+		var count = this.entryNames.getOrDefault(name, 0);
+		while (this.entryNames.containsKey(entryName)) {
+			count++;
+			entryName = name + " " + count;
+		}
+		this.entryNames.put(name, Math.max(count, 1));
+		this.entryNames.putIfAbsent(entryName, 1);
+
+		return entryName + CSV_SUFFIX;
+	}
+
+	private void writeCsv(OutputStream outputStream, Table table) throws IOException {
+		CSVWriter writer = new CSVWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		csvExporter.write(writer, table);
+		writer.close();
+	}
+
+	private Path writeTempFile(Table table) {
+		try {
+			Path file = Files.createTempFile("export", CSV_SUFFIX);
+			try (OutputStream outputStream = Files.newOutputStream(file)) {
+				writeCsv(outputStream, table);
+			} catch (IOException | RuntimeException e) {
+				deleteQuietly(file);
+				throw e;
+			}
+			return file;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void deleteQuietly(Path file) {
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			file.toFile().deleteOnExit();
+		}
+	}
+
+	/**
+	 * Output stream that flushes instead of closing the underlying stream, so a writer can be closed without closing
+	 * the zip archive.
+	 */
+	private static class NonClosingOutputStream extends FilterOutputStream {
+
+		NonClosingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+}
@@ -3,15 +3,48 @@
  * the first column (index 0) will be used for sorting, and the sort direction is ascending. These
  * defaults can be overridden by providing data attributes of `data-column` and `data-orientation`.
  * See the Datatables library documentation for more options: https://datatables.net
+ *
+ * Tables with a `data-source` attribute load their rows from a DataTables server-side endpoint,
+ * such as the `/data` route of an entity controller. Each header cell names its property with a
+ * `data-data` attribute. Header cells with a `data-link` attribute render their value as a link to
+ * the row's details page, built by appending the row's ID to the `data-link` value. Other values
+ * are rendered as text, so stored markup is never interpreted as HTML.
  */
 $(function() {
-	const column = $(".sorted").attr("data-column") || 0;
-	const orientation = $(".sorted").attr("data-orientation") || "asc";
+	$(".sorted").each(function() {
+		const table = $(this);
+		const column = table.attr("data-column") || 0;
+		const orientation = table.attr("data-orientation") || "asc";
+		const options = {
+			order : [ [ column, orientation ] ],
+			paging : true,
+			searching : true,
+			info : true,
+		};
 
-	$(".sorted").DataTable({
-		order : [ [ column, orientation ] ],
-		paging : true,
-		searching : true,
-		info : true,
+		const source = table.attr("data-source");
+		if (source) {
+			options.serverSide = true;
+			options.processing = true;
+			options.searchDelay = 400;
+			options.ajax = source;
+			options.columns = table.find("thead th").map(function() {
+				const link = $(this).attr("data-link");
+				const columnOptions = { data : $(this).attr("data-data") };
+				if (link) {
+					columnOptions.render = function(data, type, row) {
+						if (type !== "display") {
+							return data;
+						}
+						return $("<a>").attr("href", link + "/" + row.id).text(data)[0].outerHTML;
+					};
+				} else {
+					columnOptions.render = DataTable.render.text();
+				}
+				return columnOptions;
+			}).get();
+		}
+
+		table.DataTable(options);
 	});
-});
\ No newline at end of file
+});
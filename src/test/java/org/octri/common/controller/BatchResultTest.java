@@ -0,0 +1,39 @@
+package org.octri.common.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class BatchResultTest {
+
+	@Test
+	public void testEmptyResultSucceeds() {
+		BatchResult<Long> result = new BatchResult<>();
+		assertTrue(result.isSuccess());
+		assertTrue(result.getSucceeded().isEmpty());
+		assertTrue(result.getFailed().isEmpty());
+	}
+
+	@Test
+	public void testFailuresAreReportedInBatchOrder() {
+		BatchResult<Long> result = new BatchResult<>();
+		result.addSucceeded(3, 4L);
+		result.addSucceeded(0, 1L);
+		result.addFailure(2, 3L, BatchResult.Reason.IN_USE, "in use");
+		result.addFailure(1, 2L, BatchResult.Reason.NOT_FOUND, "missing");
+
+		assertFalse(result.isSuccess());
+		assertEquals(List.of(new BatchResult.Success<>(0, 1L), new BatchResult.Success<>(3, 4L)),
+				result.getSucceeded(), "Successes should be reported in batch order with their index");
+		List<BatchResult.Failure> failed = result.getFailed();
+		assertEquals(2, failed.size());
+		assertEquals(1, failed.get(0).index());
+		assertEquals(BatchResult.Reason.NOT_FOUND, failed.get(0).reason());
+		assertEquals(2, failed.get(1).index());
+		assertEquals(3L, failed.get(1).id());
+	}
+}
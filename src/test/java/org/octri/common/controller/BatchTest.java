@@ -0,0 +1,167 @@
+package org.octri.common.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.octri.common.domain.Participant;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.support.TransactionOperations;
+
+public class BatchTest {
+
+	/**
+	 * Repository that rejects any saveAll containing a participant named "Duplicate".
+	 */
+	private static class ParticipantRepository implements CrudRepository<Participant, Long> {
+
+		private final AtomicLong nextId = new AtomicLong(1);
+		private final List<Integer> saveAllSizes = new ArrayList<>();
+
+		@Override
+		public <S extends Participant> Iterable<S> saveAll(Iterable<S> entities) {
+			List<S> saved = new ArrayList<>();
+			entities.forEach(saved::add);
+			saveAllSizes.add(saved.size());
+			if (saved.stream().anyMatch(participant -> "Duplicate".equals(participant.getName()))) {
+				throw new DataIntegrityViolationException("duplicate name");
+			}
+			saved.forEach(participant -> participant.setId(nextId.getAndIncrement()));
+			return saved;
+		}
+
+		@Override
+		public <S extends Participant> S save(S entity) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Optional<Participant> findById(Long id) {
+			return Optional.empty();
+		}
+
+		@Override
+		public boolean existsById(Long id) {
+			return false;
+		}
+
+		@Override
+		public Iterable<Participant> findAll() {
+			return List.of();
+		}
+
+		@Override
+		public Iterable<Participant> findAllById(Iterable<Long> ids) {
+			return List.of();
+		}
+
+		@Override
+		public long count() {
+			return 0;
+		}
+
+		@Override
+		public void deleteById(Long id) {
+		}
+
+		@Override
+		public void delete(Participant entity) {
+		}
+
+		@Override
+		public void deleteAllById(Iterable<? extends Long> ids) {
+		}
+
+		@Override
+		public void deleteAll(Iterable<? extends Participant> entities) {
+		}
+
+		@Override
+		public void deleteAll() {
+		}
+	}
+
+	private static class ParticipantController
+			extends AbstractBaseEntityController<Participant, CrudRepository<Participant, Long>> {
+
+		private final ParticipantRepository repository = new ParticipantRepository();
+		private int checks = 0;
+
+		@Override
+		protected Class<Participant> domainClass() {
+			return Participant.class;
+		}
+
+		@Override
+		protected ParticipantRepository getRepository() {
+			return repository;
+		}
+
+		@Override
+		protected boolean batchEnabled() {
+			return true;
+		}
+
+		@Override
+		protected String checkCreate(Participant entity) {
+			checks++;
+			return entity.getName().isBlank() ? "name: must not be blank" : super.checkCreate(entity);
+		}
+
+		@Override
+		protected TransactionOperations batchTransactionOperations() {
+			return TransactionOperations.withoutTransaction();
+		}
+	}
+
+	private static Participant participant(String name) {
+		return new Participant(null, name, LocalDate.of(2024, 1, 1));
+	}
+
+	@Test
+	public void testBatchIsRejectedUnlessEnabled() {
+		ParticipantController controller = new ParticipantController() {
+			@Override
+			protected boolean batchEnabled() {
+				return false;
+			}
+		};
+		assertEquals(404, controller.createAll(List.of(participant("Alice"))).getStatusCode().value());
+	}
+
+	@Test
+	public void testCreateAllSavesValidEntitiesTogether() {
+		ParticipantController controller = new ParticipantController();
+		BatchResult<Participant> result = controller
+				.createAll(List.of(participant("Alice"), participant(" "), participant("Bob")))
+				.getBody();
+
+		assertEquals(List.of(2), controller.getRepository().saveAllSizes,
+				"Valid entities should be saved with one saveAll");
+		assertEquals(List.of(0, 2), result.getSucceeded().stream().map(BatchResult.Success::index).toList());
+		assertEquals("Bob", result.getSucceeded().get(1).item().getName());
+		assertEquals(1, result.getFailed().size());
+		assertEquals(1, result.getFailed().get(0).index());
+		assertEquals(BatchResult.Reason.INVALID, result.getFailed().get(0).reason());
+	}
+
+	@Test
+	public void testFailedSaveIsBisectedWithoutRepeatingChecks() {
+		ParticipantController controller = new ParticipantController();
+		BatchResult<Participant> result = controller.createAll(List.of(participant("Alice"), participant("Bob"),
+				participant("Duplicate"), participant("Carol"))).getBody();
+
+		assertEquals(4, controller.checks, "Each entity should be checked once");
+		assertEquals(List.of(0, 1, 3), result.getSucceeded().stream().map(BatchResult.Success::index).toList());
+		assertEquals(1, result.getFailed().size());
+		assertEquals(2, result.getFailed().get(0).index());
+		assertNull(result.getFailed().get(0).id(), "A rolled back entity should not keep its assigned ID");
+	}
+}
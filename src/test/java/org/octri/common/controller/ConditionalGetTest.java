@@ -0,0 +1,87 @@
+package org.octri.common.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.octri.common.domain.Participant;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+public class ConditionalGetTest {
+
+	private final Participant participant = new Participant(1L, "Alice", LocalDate.of(2024, 1, 1));
+
+	private class ParticipantController
+			extends AbstractBaseEntityController<Participant, CrudRepository<Participant, Long>> {
+
+		@Override
+		protected Class<Participant> domainClass() {
+			return Participant.class;
+		}
+
+		@Override
+		protected CrudRepository<Participant, Long> getRepository() {
+			return null;
+		}
+
+		@Override
+		protected boolean conditionalGet() {
+			return true;
+		}
+
+		@Override
+		public String show(Map<String, Object> model, Long id) {
+			model.put("entity", participant);
+			return "participant/show";
+		}
+	}
+
+	@Test
+	public void testUnchangedPageIsNotModified() {
+		participant.setVersion(3);
+		participant.setUpdatedAt(new Date(1_700_000_000_000L));
+		ParticipantController controller = new ParticipantController();
+
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		String view = controller.show(new HashMap<>(), 1L,
+				new ServletWebRequest(new MockHttpServletRequest("GET", "/participant/1"), first));
+		assertEquals("participant/show", view);
+		String etag = first.getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		assertEquals("no-cache, private", first.getHeader(HttpHeaders.CACHE_CONTROL));
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/participant/1");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		MockHttpServletResponse second = new MockHttpServletResponse();
+		assertNull(controller.show(new HashMap<>(), 1L, new ServletWebRequest(request, second)));
+		assertEquals(304, second.getStatus());
+	}
+
+	@Test
+	public void testChangedVersionIsRendered() {
+		participant.setVersion(3);
+		ParticipantController controller = new ParticipantController();
+
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		controller.show(new HashMap<>(), 1L,
+				new ServletWebRequest(new MockHttpServletRequest("GET", "/participant/1"), first));
+		String etag = first.getHeader(HttpHeaders.ETAG);
+
+		participant.setVersion(4);
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/participant/1");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		MockHttpServletResponse second = new MockHttpServletResponse();
+		assertEquals("participant/show", controller.show(new HashMap<>(), 1L, new ServletWebRequest(request, second)));
+		assertEquals(200, second.getStatus());
+	}
+}
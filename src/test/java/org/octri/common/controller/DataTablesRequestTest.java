@@ -0,0 +1,53 @@
+package org.octri.common.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+public class DataTablesRequestTest {
+
+	private static final Sort DEFAULT_SORT = Sort.by("id");
+
+	@Test
+	public void testParseRequest() {
+		DataTablesRequest request = DataTablesRequest.of(Map.of(
+				"draw", "3",
+				"start", "50",
+				"length", "25",
+				"search[value]", "doe",
+				"columns[0][data]", "name",
+				"columns[1][data]", "startDate",
+				"columns[1][searchable]", "false",
+				"order[0][column]", "1",
+				"order[0][dir]", "desc"));
+
+		assertEquals(3, request.getDraw());
+		assertEquals("doe", request.getSearch());
+		assertEquals(List.of("name"), request.getSearchableColumns());
+
+		Pageable pageable = request.toPageable(100, Set.of("name", "startDate"), DEFAULT_SORT);
+		assertEquals(2, pageable.getPageNumber());
+		assertEquals(25, pageable.getPageSize());
+		assertEquals(Sort.by(Sort.Direction.DESC, "startDate"), pageable.getSort());
+	}
+
+	@Test
+	public void testUnsafeValuesAreReplaced() {
+		DataTablesRequest request = DataTablesRequest.of(Map.of(
+				"draw", "x",
+				"length", "-1",
+				"columns[0][data]", "password",
+				"order[0][column]", "0"));
+
+		assertEquals(0, request.getDraw(), "Invalid numbers should use defaults");
+		Pageable pageable = request.toPageable(100, Set.of("name"), DEFAULT_SORT);
+		assertEquals(100, pageable.getPageSize(), "Requests for all rows should be limited to the maximum");
+		assertEquals(DEFAULT_SORT, pageable.getSort(), "Columns that are not sortable should be ignored");
+	}
+}
@@ -0,0 +1,140 @@
+package org.octri.common.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.Hibernate;
+import org.hibernate.collection.spi.PersistentBag;
+import org.junit.jupiter.api.Test;
+import org.octri.common.domain.AbstractEntity;
+import org.octri.common.domain.Participant;
+
+public class EntityReadCacheTest {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	/**
+	 * A test entity with a lazily loaded collection.
+	 */
+	private static class Site extends AbstractEntity {
+
+		private List<Participant> participants;
+
+		Site(Long id, Integer version, List<Participant> participants) {
+			this.id = id;
+			this.participants = participants;
+			setVersion(version);
+		}
+
+		List<Participant> getParticipants() {
+			return participants;
+		}
+	}
+
+	private static Participant copyParticipant(Participant participant) {
+		Participant copy = new Participant(participant.getId(), participant.getName(), participant.getStartDate());
+		copy.setVersion(participant.getVersion());
+		return copy;
+	}
+
+	private static Site copySite(Site site) {
+		// unloaded collections are left out rather than carried over detached
+		List<Participant> participants = Hibernate.isInitialized(site.getParticipants())
+				? new ArrayList<>(site.getParticipants())
+				: null;
+		return new Site(site.getId(), site.getVersion(), participants);
+	}
+
+	private Participant participant(long id, int version) {
+		Participant participant = new Participant(id, "Participant " + id, LocalDate.of(2024, 1, 1));
+		participant.setVersion(version);
+		return participant;
+	}
+
+	@Test
+	public void testHitRequiresCurrentVersion() {
+		EntityReadCache<Participant> cache = new EntityReadCache<>(10, Duration.ofMinutes(5),
+				EntityReadCacheTest::copyParticipant, clock::get);
+		Participant participant = participant(1, 2);
+		cache.put(participant);
+
+		assertEquals("Participant 1", cache.get(1L, 2).getName());
+		assertNull(cache.get(1L, 3));
+		assertNull(cache.get(1L, 2), "Stale entry should have been removed");
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(1.0 / 3, cache.getHitRate(), 0.0001);
+	}
+
+	@Test
+	public void testExpiredEntriesAreReloaded() {
+		EntityReadCache<Participant> cache = new EntityReadCache<>(10, Duration.ofSeconds(30),
+				EntityReadCacheTest::copyParticipant, clock::get);
+		cache.put(participant(1, 1));
+		clock.addAndGet(Duration.ofSeconds(29).toNanos());
+		assertEquals(1L, cache.get(1L, 1).getId());
+		clock.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertNull(cache.get(1L, 1));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEntryIsEvicted() {
+		EntityReadCache<Participant> cache = new EntityReadCache<>(2, Duration.ofMinutes(5),
+				EntityReadCacheTest::copyParticipant, clock::get);
+		cache.put(participant(1, 1));
+		cache.put(participant(2, 1));
+		cache.get(1L, 1);
+		cache.put(participant(3, 1));
+
+		assertEquals(2, cache.getSize());
+		assertNull(cache.get(2L, 1));
+		assertEquals(1L, cache.get(1L, 1).getId());
+		assertEquals(3L, cache.get(3L, 1).getId());
+	}
+
+	@Test
+	public void testInvalidate() {
+		EntityReadCache<Participant> cache = new EntityReadCache<>(10, Duration.ofMinutes(5),
+				EntityReadCacheTest::copyParticipant, clock::get);
+		cache.put(participant(1, 1));
+		cache.invalidate(1L);
+		assertNull(cache.get(1L, 1));
+	}
+
+	@Test
+	public void testCachedEntityIsNotShared() {
+		EntityReadCache<Participant> cache = new EntityReadCache<>(10, Duration.ofMinutes(5),
+				EntityReadCacheTest::copyParticipant, clock::get);
+		Participant participant = participant(1, 1);
+		cache.put(participant);
+		participant.setName("Changed by the loading request");
+
+		Participant first = cache.get(1L, 1);
+		assertNotSame(participant, first);
+		assertEquals("Participant 1", first.getName());
+		first.setName("Changed by a reading request");
+		assertEquals("Participant 1", cache.get(1L, 1).getName(), "Requests should not see each other's changes");
+	}
+
+	@Test
+	public void testLazyAssociationIsNotCached() {
+		EntityReadCache<Site> cache = new EntityReadCache<>(10, Duration.ofMinutes(5), EntityReadCacheTest::copySite,
+				clock::get);
+		Site site = new Site(1L, 1, new PersistentBag<>());
+		assertFalse(Hibernate.isInitialized(site.getParticipants()));
+		cache.put(site);
+
+		Site cached = cache.get(1L, 1);
+		assertNotSame(site, cached);
+		assertNull(cached.getParticipants(), "An unloaded collection should not outlive its session in the cache");
+	}
+}
@@ -0,0 +1,94 @@
+package org.octri.common.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.octri.common.domain.Participant;
+import org.octri.common.view.ColumnSelection;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public class ExportTest {
+
+	private static class ParticipantController
+			extends AbstractBaseEntityController<Participant, CrudRepository<Participant, Long>> {
+
+		private final boolean enabled;
+		private final ColumnSelection columns;
+
+		ParticipantController(boolean enabled, ColumnSelection columns) {
+			this.enabled = enabled;
+			this.columns = columns;
+		}
+
+		@Override
+		protected Class<Participant> domainClass() {
+			return Participant.class;
+		}
+
+		@Override
+		protected CrudRepository<Participant, Long> getRepository() {
+			return null;
+		}
+
+		@Override
+		protected boolean exportEnabled() {
+			return enabled;
+		}
+
+		@Override
+		protected ColumnSelection exportColumns() {
+			return columns;
+		}
+
+		@Override
+		protected Stream<Participant> exportEntities() {
+			return Stream.of(new Participant(1L, "Alice", LocalDate.of(2024, 1, 1)),
+					new Participant(2L, "Bob", LocalDate.of(2024, 2, 1)));
+		}
+
+		@Override
+		protected TransactionOperations exportTransactionOperations() {
+			return TransactionOperations.withoutTransaction();
+		}
+	}
+
+	@Test
+	public void testExportIsRejectedUnlessEnabled() {
+		ParticipantController controller = new ParticipantController(false, ColumnSelection.include("name"));
+		assertEquals(404, controller.export("csv").getStatusCode().value());
+	}
+
+	@Test
+	public void testUnsupportedFormatIsRejected() {
+		ParticipantController controller = new ParticipantController(true, ColumnSelection.include("name"));
+		assertEquals(404, controller.export("pdf").getStatusCode().value());
+	}
+
+	@Test
+	public void testEnabledExportRequiresColumns() {
+		ParticipantController controller = new ParticipantController(true, null);
+		assertThrows(IllegalStateException.class, () -> controller.export("csv"));
+	}
+
+	@Test
+	public void testExportWritesOnlySelectedColumns() throws Exception {
+		ParticipantController controller = new ParticipantController(true, ColumnSelection.include("name"));
+		ResponseEntity<StreamingResponseBody> response = controller.export("csv");
+		assertEquals(200, response.getStatusCode().value());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		response.getBody().writeTo(out);
+		assertEquals(List.of("\"name\"", "\"Alice\"", "\"Bob\""),
+				out.toString(StandardCharsets.UTF_8).lines().toList(), "Only the selected columns should be exported");
+	}
+}
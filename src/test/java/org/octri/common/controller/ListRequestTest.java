@@ -0,0 +1,47 @@
+package org.octri.common.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+public class ListRequestTest {
+
+	private static final Set<String> SORTABLE = Set.of("id", "name");
+	private static final Sort DEFAULT_SORT = Sort.by("id");
+
+	@Test
+	public void testDefaults() {
+		Pageable pageable = new ListRequest().toPageable(25, 100, SORTABLE, DEFAULT_SORT);
+		assertEquals(0, pageable.getPageNumber());
+		assertEquals(25, pageable.getPageSize());
+		assertEquals(DEFAULT_SORT, pageable.getSort());
+	}
+
+	@Test
+	public void testRequestedPageAndSort() {
+		ListRequest request = new ListRequest();
+		request.setPage(3);
+		request.setSize(50);
+		request.setSort("name,desc");
+		Pageable pageable = request.toPageable(25, 100, SORTABLE, DEFAULT_SORT);
+		assertEquals(3, pageable.getPageNumber());
+		assertEquals(50, pageable.getPageSize());
+		assertEquals(Sort.by(Sort.Direction.DESC, "name"), pageable.getSort());
+	}
+
+	@Test
+	public void testUnsafeValuesAreReplaced() {
+		ListRequest request = new ListRequest();
+		request.setPage(-1);
+		request.setSize(100000);
+		request.setSort("password,asc");
+		Pageable pageable = request.toPageable(25, 100, SORTABLE, DEFAULT_SORT);
+		assertEquals(0, pageable.getPageNumber(), "Negative pages should select the first page");
+		assertEquals(100, pageable.getPageSize(), "Sizes should be limited to the maximum");
+		assertEquals(DEFAULT_SORT, pageable.getSort(), "Properties that are not sortable should be ignored");
+	}
+}
@@ -0,0 +1,133 @@
+package org.octri.common.export;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.octri.common.domain.Participant;
+import org.octri.common.view.CsvExporter;
+import org.octri.common.view.ReflectiveTable;
+import org.octri.common.view.Table;
+
+public class ExportCacheTest {
+
+	@TempDir
+	private Path directory;
+
+	private ExportCache cache;
+	private AtomicInteger generated;
+
+	@BeforeEach
+	public void setup() {
+		cache = new ExportCache(directory, 1024 * 1024);
+		generated = new AtomicInteger();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		cache.close();
+	}
+
+	private Supplier<List<Table>> participants() {
+		return () -> {
+			generated.incrementAndGet();
+			return List.of(new ReflectiveTable<>("Participants", Participant.class,
+					List.of(new Participant(1L, "Jane Doe", LocalDate.of(2025, 07, 01)),
+							new Participant(2L, "John Doe", LocalDate.of(2025, 07, 02)))));
+		};
+	}
+
+	@Test
+	public void testHitServesCachedFile() throws Exception {
+		CsvExporter exporter = new CsvExporter();
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		cache.export("Participants", "2-100", exporter, participants(), first);
+		cache.export("Participants", "2-100", exporter, participants(), second);
+
+		assertEquals(1, generated.get(), "The export should only be generated once");
+		assertArrayEquals(first.toByteArray(), second.toByteArray(), "The cached file should match the export");
+		assertTrue(new String(first.toByteArray()).contains("\"Jane Doe\""));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void testChangedFingerprintRegenerates() throws Exception {
+		CsvExporter exporter = new CsvExporter();
+		Path first = cache.get("Participants", "2-100", exporter, participants());
+		Path second = cache.get("Participants", "2-200", exporter, participants());
+
+		assertEquals(2, generated.get(), "A new fingerprint should generate a new file");
+		assertNotEquals(first, second);
+	}
+
+	@Test
+	public void testExporterConfigurationIsPartOfKey() throws Exception {
+		Path stacked = cache.get("Participants", "2-100", new CsvExporter(), participants());
+		Path joined = cache.get("Participants", "2-100", new CsvExporter("id"), participants());
+		Path joinedAgain = cache.get("Participants", "2-100", new CsvExporter("id"), participants());
+
+		assertEquals(2, generated.get(), "Differently configured exporters should not share a file");
+		assertNotEquals(stacked, joined);
+		assertEquals(joined, joinedAgain);
+	}
+
+	@Test
+	public void testUnnamedJoinOrderIsNotCached() throws Exception {
+		CsvExporter exporter = new CsvExporter();
+		exporter.setJoinKey("id", Comparator.reverseOrder());
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		cache.export("Participants", "2-100", exporter, participants(), first);
+		cache.export("Participants", "2-100", exporter, participants(), second);
+
+		assertEquals(2, generated.get(), "An export in an unnamed order should be generated every time");
+		assertArrayEquals(first.toByteArray(), second.toByteArray());
+		assertEquals(0, cache.getSize());
+		assertThrows(IllegalArgumentException.class,
+				() -> cache.get("Participants", "2-100", exporter, participants()));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedFileIsEvicted() throws Exception {
+		CsvExporter exporter = new CsvExporter();
+		Path first = cache.get("Participants", "a", exporter, participants());
+		long fileSize = Files.size(first);
+		cache.close();
+
+		cache = new ExportCache(directory, fileSize * 2);
+		first = cache.get("Participants", "a", exporter, participants());
+		Path second = cache.get("Participants", "b", exporter, participants());
+		cache.get("Participants", "a", exporter, participants());
+		Path third = cache.get("Participants", "c", exporter, participants());
+
+		assertTrue(Files.exists(first), "The recently used file should be kept");
+		assertFalse(Files.exists(second), "The least recently used file should be evicted");
+		assertTrue(Files.exists(third));
+		assertEquals(fileSize * 2, cache.getSize());
+	}
+
+	@Test
+	public void testFingerprint() {
+		assertEquals("3-1000", ExportCache.fingerprint(3, new Date(1000)));
+		assertEquals("0-0", ExportCache.fingerprint(0, null));
+	}
+}
@@ -0,0 +1,110 @@
+package org.octri.common.export;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.octri.common.domain.Participant;
+import org.octri.common.view.CsvExporter;
+import org.octri.common.view.ReflectiveTable;
+import org.octri.common.view.Table;
+
+public class ExportJobServiceTest {
+
+	@TempDir
+	private Path directory;
+
+	private ExportJobService service;
+
+	@BeforeEach
+	public void setup() {
+		service = new ExportJobService(1, 4, directory, Duration.ofMinutes(5));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		service.close();
+	}
+
+	private static Table participants() {
+		return new ReflectiveTable<>("Participants", Participant.class,
+				List.of(new Participant(1L, "Jane Doe", LocalDate.of(2025, 07, 01)),
+						new Participant(2L, "John Doe", LocalDate.of(2025, 07, 02))));
+	}
+
+	@Test
+	public void testCompletedJobTracksProgress() throws Exception {
+		ExportJob job = service.submitTable("Study Participants", new CsvExporter(), () -> participants());
+		assertTrue(job.await(10, TimeUnit.SECONDS), "The job should finish");
+
+		assertEquals(ExportJob.Status.COMPLETED, job.getStatus());
+		assertTrue(job.getFileName().startsWith("Study_Participants_export_"), "File name should use the exporter");
+		assertEquals(2, job.getRowsWritten(), "Both rows should be counted");
+		assertEquals(2L, job.getTotalRows(), "Total rows should come from the table's row count hint");
+		assertEquals(Files.size(job.getFile()), job.getBytesWritten(), "Bytes written should match the file");
+		assertTrue(Files.readString(job.getFile(), StandardCharsets.UTF_8).contains("\"Jane Doe\""));
+	}
+
+	@Test
+	public void testFailedJobReportsError() throws Exception {
+		ExportJob job = service.submitTable("Broken", new CsvExporter(), () -> {
+			throw new IllegalStateException("No data");
+		});
+		assertTrue(job.await(10, TimeUnit.SECONDS), "The job should finish");
+
+		assertEquals(ExportJob.Status.FAILED, job.getStatus());
+		assertEquals("No data", job.getErrorMessage());
+		assertFalse(Files.exists(job.getFile()), "The file of a failed job should be deleted");
+	}
+
+	@Test
+	public void testCancelQueuedJob() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		ExportJob blocking = service.submitTable("Blocking", new CsvExporter(), () -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return participants();
+		});
+		ExportJob queued = service.submitTable("Queued", new CsvExporter(), () -> participants());
+
+		assertTrue(service.cancel(queued.getId()), "A queued job can be cancelled");
+		assertEquals(ExportJob.Status.CANCELLED, queued.getStatus());
+		assertFalse(service.cancel(queued.getId()), "A cancelled job cannot be cancelled again");
+
+		release.countDown();
+		assertTrue(blocking.await(10, TimeUnit.SECONDS), "The blocking job should finish");
+		assertEquals(ExportJob.Status.COMPLETED, blocking.getStatus());
+	}
+
+	@Test
+	public void testPurgeExpiredJobs() throws Exception {
+		ExportJobService expiring = new ExportJobService(1, 4, directory, Duration.ZERO);
+		try {
+			ExportJob job = expiring.submitTable("Participants", new CsvExporter(), () -> participants());
+			assertTrue(job.await(10, TimeUnit.SECONDS), "The job should finish");
+			Thread.sleep(5);
+
+			expiring.purgeExpired();
+			assertTrue(expiring.getJob(job.getId()).isEmpty(), "The expired job should be removed");
+			assertFalse(Files.exists(job.getFile()), "The expired job's file should be deleted");
+		} finally {
+			expiring.close();
+		}
+	}
+}
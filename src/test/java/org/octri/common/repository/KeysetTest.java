@@ -0,0 +1,112 @@
+package org.octri.common.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.octri.common.domain.Participant;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class KeysetTest {
+
+	private static List<Participant> participants(long count) {
+		return LongStream.rangeClosed(1, count)
+				.mapToObj(id -> new Participant(id, "Participant " + id, LocalDate.of(2025, 1, 1)))
+				.toList();
+	}
+
+	/**
+	 * Reads pages of the participants after an ID, recording the ID each page was requested after.
+	 */
+	private static Function<Long, List<Participant>> pages(List<Participant> participants, int size,
+			List<Long> requestedAfter) {
+		return lastId -> {
+			requestedAfter.add(lastId);
+			return participants.stream()
+					.filter(participant -> lastId == null || participant.getId() > lastId)
+					.limit(size)
+					.toList();
+		};
+	}
+
+	@Test
+	public void testChunksEndAfterShortPage() {
+		List<Long> requestedAfter = new ArrayList<>();
+		List<List<Participant>> chunks = Keyset.chunks(pages(participants(7), 3, requestedAfter), 3).toList();
+
+		assertEquals(List.of(3, 3, 1), chunks.stream().map(List::size).toList());
+		assertEquals(List.of(1L, 4L, 7L), chunks.stream().map(chunk -> chunk.get(0).getId()).toList());
+		assertEquals(Arrays.asList(null, 3L, 6L), requestedAfter,
+				"Each page should start after the last ID of the previous page");
+	}
+
+	@Test
+	public void testChunksOfExactMultipleReadOneEmptyPage() {
+		List<Long> requestedAfter = new ArrayList<>();
+		List<List<Participant>> chunks = Keyset.chunks(pages(participants(6), 3, requestedAfter), 3).toList();
+
+		assertEquals(List.of(3, 3), chunks.stream().map(List::size).toList());
+		assertEquals(3, requestedAfter.size(), "A full last page is followed by one empty page");
+	}
+
+	@Test
+	public void testChunksOfEmptyTable() {
+		List<Long> requestedAfter = new ArrayList<>();
+		assertEquals(0, Keyset.chunks(pages(List.of(), 3, requestedAfter), 3).count());
+		assertEquals(1, requestedAfter.size());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSortedPositionBreaksTiesById() {
+		Root<Participant> root = mock(Root.class);
+		CriteriaQuery<?> query = mock(CriteriaQuery.class);
+		CriteriaBuilder builder = mock(CriteriaBuilder.class);
+		Path<LocalDate> startDate = mock(Path.class);
+		Path<Long> id = mock(Path.class);
+		when(root.<LocalDate> get("startDate")).thenReturn(startDate);
+		when(root.<Long> get("id")).thenReturn(id);
+
+		LocalDate tie = LocalDate.of(2025, 1, 1);
+		Predicate after = mock(Predicate.class);
+		Predicate sameDate = mock(Predicate.class);
+		Predicate afterId = mock(Predicate.class);
+		Predicate sameDateAfterId = mock(Predicate.class);
+		Predicate position = mock(Predicate.class);
+		when(builder.greaterThan(startDate, tie)).thenReturn(after);
+		when(builder.equal(startDate, tie)).thenReturn(sameDate);
+		when(builder.greaterThan(id, 3L)).thenReturn(afterId);
+		when(builder.and(sameDate, afterId)).thenReturn(sameDateAfterId);
+		when(builder.or(after, sameDateAfterId)).thenReturn(position);
+
+		Specification<Participant> spec = Keyset.after("startDate", tie, 3L, Sort.Direction.ASC);
+		assertSame(position, spec.toPredicate(root, query, builder),
+				"Rows sharing the last sort value should resume after the last ID");
+		assertNull(Keyset.<Participant, LocalDate> after("startDate", null, null, Sort.Direction.ASC)
+				.toPredicate(root, query, builder), "The first page should not be filtered");
+	}
+
+	@Test
+	public void testSortUsesIdAsTieBreaker() {
+		assertEquals(Sort.by(Sort.Direction.DESC, "startDate").and(Sort.by(Sort.Direction.DESC, "id")),
+				Keyset.sort("startDate", Sort.Direction.DESC));
+		assertEquals(Sort.by(Sort.Direction.ASC, "id"), Keyset.sort("id", Sort.Direction.ASC));
+	}
+}
@@ -0,0 +1,126 @@
+package org.octri.common.view;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.octri.common.domain.Participant;
+
+public class CsvExporterTest {
+
+	private static final LocalDate START_DATE = LocalDate.of(2025, 07, 01);
+
+	private static Table table(String displayName, List<String> headers, List<List<String>> rows) {
+		return new Table() {
+
+			@Override
+			public String displayName() {
+				return displayName;
+			}
+
+			@Override
+			public List<String> headers() {
+				return headers;
+			}
+
+			@Override
+			public List<List<String>> rows() {
+				return rows;
+			}
+		};
+	}
+
+	private String export(Exporter exporter, Table table) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(out, table);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private String export(Exporter exporter, List<Table> tables) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(out, tables);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testExportStreamBackedTable() throws Exception {
+		Stream<Participant> participants = Stream.of(new Participant(1L, "Jane Doe", START_DATE),
+				new Participant(2L, "John Doe", START_DATE));
+		ReflectiveTable<Participant> table = new ReflectiveTable<>("Participant", Participant.class, participants);
+
+		List<String> lines = export(new CsvExporter(), table).lines().toList();
+		assertEquals(3, lines.size(), "Expected a header line and a line per participant");
+		assertEquals("\"name\",\"startDate\"", lines.get(0));
+		assertEquals("\"John Doe\",\"2025-07-01\"", lines.get(2));
+	}
+
+	@Test
+	public void testExportMultipleTablesAsSparseTable() throws Exception {
+		Table baseline = table("Baseline", List.of("participant", "weight"),
+				List.of(List.of("1", "70"), List.of("2", "80")));
+		Table followup = table("Followup", List.of("participant", "mood"), List.of(List.of("1", "good")));
+
+		List<String> lines = export(new CsvExporter(), List.of(baseline, followup)).lines().toList();
+		assertEquals(List.of("\"participant\",\"weight\",\"mood\"",
+				"\"1\",\"70\",",
+				"\"2\",\"80\",",
+				"\"1\",,\"good\""), lines);
+	}
+
+	@Test
+	public void testExportMultipleTablesJoinedByKey() throws Exception {
+		Table baseline = table("Baseline", List.of("participant", "score"),
+				List.of(List.of("1", "70"), List.of("2", "80"), List.of("4", "90")));
+		Table followup = table("Followup", List.of("participant", "score"),
+				List.of(List.of("2", "85"), List.of("3", "60")));
+
+		List<String> lines = export(new CsvExporter("participant"), List.of(baseline, followup)).lines().toList();
+		assertEquals(List.of("\"participant\",\"Baseline.score\",\"Followup.score\"",
+				"\"1\",\"70\",",
+				"\"2\",\"80\",\"85\"",
+				"\"3\",,\"60\"",
+				"\"4\",\"90\","), lines);
+	}
+
+	@Test
+	public void testExportJoinedRequiresKeyColumnAndSortedRows() {
+		Table baseline = table("Baseline", List.of("participant", "score"),
+				List.of(List.of("2", "80"), List.of("1", "70")));
+		Table other = table("Other", List.of("id"), List.of());
+
+		assertThrows(IllegalArgumentException.class,
+				() -> export(new CsvExporter("participant"), List.of(baseline, other)),
+				"Tables without the join key column should be rejected");
+		assertThrows(IllegalStateException.class,
+				() -> export(new CsvExporter("participant"), List.of(baseline, baseline)),
+				"Unsorted rows should be rejected");
+	}
+
+	@Test
+	public void testExportJoinedWithoutTables() throws Exception {
+		String output = export(new CsvExporter("participant"), List.of());
+		assertEquals(0, output.lines().filter(line -> !line.isEmpty()).count(), "No rows should be written");
+	}
+
+	@Test
+	public void testConfigurationKeyNamesJoinOrder() {
+		CsvExporter exporter = new CsvExporter();
+		assertEquals("", exporter.getConfigurationKey());
+
+		exporter.setJoinKey("participant");
+		assertEquals("joinKey=participant;order=natural", exporter.getConfigurationKey());
+
+		exporter.setJoinKey("participant", String.CASE_INSENSITIVE_ORDER);
+		assertNull(exporter.getConfigurationKey(), "An unnamed order should not be cached");
+
+		exporter.setJoinKey("participant", String.CASE_INSENSITIVE_ORDER, "caseInsensitive");
+		assertEquals("joinKey=participant;order=caseInsensitive", exporter.getConfigurationKey());
+	}
+}
@@ -1,11 +1,55 @@
 package org.octri.common.view;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
+import org.octri.common.domain.Participant;
+import org.octri.common.domain.Response;
 
 public class ExcelExporterTest {
 
+	private static Table numberedTable(String displayName, int rowCount) {
+		List<List<String>> rows = new ArrayList<>();
+		for (int i = 1; i <= rowCount; i++) {
+			rows.add(List.of(Integer.toString(i), "row " + i));
+		}
+		return new Table() {
+
+			@Override
+			public String displayName() {
+				return displayName;
+			}
+
+			@Override
+			public List<String> headers() {
+				return List.of("id", "label");
+			}
+
+			@Override
+			public List<List<String>> rows() {
+				return rows;
+			}
+		};
+	}
+
 	/**
 	 * Test rules
 	 *
@@ -73,4 +117,192 @@ public class ExcelExporterTest {
 		assertEquals("empty 2", exporter.createSheetName(""));
 		assertEquals("empty 3", exporter.createSheetName("'[*?:]'"));
 	}
+
+	@Test
+	public void testStreamingExportWritesAllRows() throws Exception {
+		ExcelExporter exporter = new ExcelExporter(10);
+		assertTrue(exporter.isStreaming(), "A positive row window should enable streaming");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(out, List.of(numberedTable("Numbers", 250), numberedTable("Numbers", 5)));
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			assertEquals(2, workbook.getNumberOfSheets(), "Expected a sheet per table");
+			Sheet sheet = workbook.getSheet("Numbers");
+			assertEquals(250, sheet.getLastRowNum(), "Expected a header row plus 250 data rows");
+			assertEquals("id", sheet.getRow(0).getCell(0).getStringCellValue());
+			assertEquals("row 250", sheet.getRow(250).getCell(1).getStringCellValue());
+			assertEquals(5, workbook.getSheet("Numbers 2").getLastRowNum());
+		}
+	}
+
+	@Test
+	public void testDefaultExporterIsNotStreaming() {
+		assertFalse(new ExcelExporter().isStreaming(), "The default exporter should build the workbook in memory");
+		assertEquals(ExcelExporter.DEFAULT_ROW_ACCESS_WINDOW_SIZE,
+				ExcelExporter.streaming().getRowAccessWindowSize());
+	}
+
+	@Test
+	public void testConcurrentExportKeepsSheetOrder() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			ExcelExporter exporter = new ExcelExporter();
+			exporter.setExecutor(executor);
+			List<Table> tables = new ArrayList<>();
+			for (int i = 1; i <= 6; i++) {
+				tables.add(numberedTable("Survey", i * 10));
+			}
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			exporter.export(out, tables);
+
+			try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+				assertEquals(6, workbook.getNumberOfSheets(), "Expected a sheet per table");
+				assertEquals("Survey", workbook.getSheetName(0));
+				for (int i = 1; i <= 6; i++) {
+					Sheet sheet = workbook.getSheetAt(i - 1);
+					if (i > 1) {
+						assertEquals("Survey " + i, sheet.getSheetName(), "Sheet names should follow table order");
+					}
+					assertEquals(i * 10, sheet.getLastRowNum(), "Sheet should contain its own table's rows");
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testConcurrentExportLimitsTablesInFlight() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			AtomicInteger started = new AtomicInteger();
+			AtomicInteger appended = new AtomicInteger();
+			AtomicInteger maxInFlight = new AtomicInteger();
+			ExcelExporter exporter = new ExcelExporter() {
+				@Override
+				protected void appendSheet(Workbook workbook, Table table) {
+					super.appendSheet(workbook, table);
+					appended.incrementAndGet();
+				}
+			};
+			exporter.setExecutor(executor);
+			exporter.setMaxConcurrentTables(2);
+
+			List<Table> tables = new ArrayList<>();
+			for (int i = 1; i <= 8; i++) {
+				Table numbers = numberedTable("Survey", 10);
+				tables.add(new Table() {
+					@Override
+					public String displayName() {
+						return numbers.displayName();
+					}
+
+					@Override
+					public List<String> headers() {
+						return numbers.headers();
+					}
+
+					@Override
+					public List<List<String>> rows() {
+						int inFlight = started.incrementAndGet() - appended.get();
+						maxInFlight.accumulateAndGet(inFlight, Math::max);
+						return numbers.rows();
+					}
+				});
+			}
+
+			exporter.export(new ByteArrayOutputStream(), tables);
+			assertEquals(8, appended.get());
+			assertTrue(maxInFlight.get() <= 2, "At most two tables should be read at a time");
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testTypedColumnsWriteNativeCells() throws Exception {
+		Participant participant = new Participant(7L, "Jane Doe", LocalDate.of(2025, 07, 01));
+		ReflectiveTable<Participant> participants = new ReflectiveTable<>("Participants", Participant.class,
+				List.of(participant));
+		ReflectiveTable<Response> responses = new ReflectiveTable<>("Responses", Response.class,
+				List.of(new Response(1L, participant, "Yes")));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new ExcelExporter().export(out, List.of(participants, responses));
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			var participantRow = workbook.getSheet("Participants").getRow(1);
+			assertEquals(CellType.STRING, participantRow.getCell(0).getCellType(), "Names should be strings");
+			assertEquals(CellType.NUMERIC, participantRow.getCell(1).getCellType(), "Dates should be numeric");
+			assertTrue(DateUtil.isCellDateFormatted(participantRow.getCell(1)), "Dates should be date formatted");
+			assertEquals(LocalDate.of(2025, 07, 01),
+					participantRow.getCell(1).getLocalDateTimeCellValue().toLocalDate());
+
+			var responseRow = workbook.getSheet("Responses").getRow(1);
+			assertEquals(CellType.NUMERIC, responseRow.getCell(0).getCellType(), "Associations should be IDs");
+			assertEquals(7, responseRow.getCell(0).getNumericCellValue());
+		}
+	}
+
+	@Test
+	public void testOverriddenAddDataValuesIsCalled() throws Exception {
+		ExcelExporter exporter = new ExcelExporter() {
+			@Override
+			protected void addDataValues(Sheet sheet, List<Class<?>> columnTypes, Iterator<? extends List<?>> rows,
+					CellStyle bodyStyle) {
+				int count = 0;
+				for (; rows.hasNext(); rows.next()) {
+					count++;
+				}
+				sheet.createRow(1).createCell(0).setCellValue("custom " + count);
+			}
+		};
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(out, numberedTable("Numbers", 3));
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			assertEquals("custom 3", workbook.getSheet("Numbers").getRow(1).getCell(0).getStringCellValue());
+		}
+	}
+
+	@Test
+	public void testInlineStringStorage() throws Exception {
+		ExcelExporter exporter = new ExcelExporter();
+		exporter.setStringStorage(ExcelExporter.StringStorage.INLINE);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(out, numberedTable("Numbers", 20));
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			assertEquals(0, workbook.getSharedStringSource().getUniqueCount(), "Strings should be stored inline");
+			assertEquals("row 20", workbook.getSheet("Numbers").getRow(20).getCell(1).getStringCellValue());
+		}
+	}
+
+	@Test
+	public void testAutoStringStorageUsesSampleCardinality() throws Exception {
+		ExcelExporter exporter = new ExcelExporter();
+		exporter.setAutoStringStorage(10, 0.5);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(out, numberedTable("Numbers", 50));
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			assertEquals(0, workbook.getSharedStringSource().getUniqueCount(),
+					"Distinct values should be stored inline");
+			assertEquals(50, workbook.getSheet("Numbers").getLastRowNum(), "Sampled rows should still be written");
+		}
+
+		Table repeated = new MaterializedTable("Repeated", List.of("answer"), List.of(String.class),
+				List.of(List.of("yes"), List.of("no"), List.of("yes"), List.of("yes")));
+		out = new ByteArrayOutputStream();
+		exporter.export(out, repeated);
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			assertTrue(workbook.getSharedStringSource().getUniqueCount() > 0,
+					"Repeated values should use the shared strings table");
+			assertEquals(4, workbook.getSheet("Repeated").getLastRowNum());
+		}
+	}
 }
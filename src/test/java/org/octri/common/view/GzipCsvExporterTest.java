@@ -0,0 +1,63 @@
+package org.octri.common.view;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class GzipCsvExporterTest {
+
+	private static String gunzip(byte[] bytes) throws Exception {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	@Test
+	public void testExportIsCompressedUtf8() throws Exception {
+		Table table = new MaterializedTable("Names", List.of("name"), List.of(String.class),
+				List.of(List.of("José"), List.of("Zoë")));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new GzipCsvExporter().export(out, table);
+
+		assertEquals("\"name\"\n\"José\"\n\"Zoë\"\n", gunzip(out.toByteArray()));
+	}
+
+	@Test
+	public void testExportToChannelWithSmallBuffer() throws Exception {
+		List<List<Object>> rows = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			rows.add(List.of("row " + i));
+		}
+		Table table = new MaterializedTable("Rows", List.of("label"), List.of(String.class), rows);
+
+		GzipCsvExporter exporter = new GzipCsvExporter();
+		exporter.setBufferSize(64);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(Channels.newChannel(out), table);
+
+		List<String> lines = gunzip(out.toByteArray()).lines().toList();
+		assertEquals(1001, lines.size(), "Expected a header line and a line per row");
+		assertEquals("\"row 999\"", lines.get(1000));
+	}
+
+	@Test
+	public void testContentEncodingPassthrough() {
+		GzipCsvExporter exporter = new GzipCsvExporter();
+		assertEquals(".csv.gz", exporter.getFileSuffix());
+		assertNull(exporter.getContentEncoding(), "Compressed files are downloaded as is by default");
+
+		exporter.setContentEncodingPassthrough(true);
+		assertEquals(".csv", exporter.getFileSuffix());
+		assertEquals("gzip", exporter.getContentEncoding());
+	}
+}
@@ -1,11 +1,21 @@
 package org.octri.common.view;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -66,4 +76,156 @@ public class ReflectiveTableTest {
 				responseTable.rows().get(1).containsAll(Set.of(Long.toString(PARTICIPANT_ID), RESPONSE_2)),
 				"Row 2 does not contain expected values");
 	}
+
+	@Test
+	public void testStreamBackedTable() {
+		Response response = new Response(1L, this.participant, RESPONSE_1);
+		Response response2 = new Response(2L, this.participant, RESPONSE_2);
+		AtomicBoolean closed = new AtomicBoolean(false);
+		ReflectiveTable<Response> responseTable = new ReflectiveTable<>("Response", Response.class,
+				Stream.of(response, response2).onClose(() -> closed.set(true)));
+
+		assertFalse(responseTable.rowCountHint().isPresent(), "Row count of a stream-backed table is unknown");
+		assertEquals(2, responseTable.columnCount(), "Expected 2 columns for Response table");
+		try (Stream<List<String>> rows = responseTable.rowStream()) {
+			List<List<String>> rowList = rows.toList();
+			assertEquals(2, rowList.size(), "Expected 2 rows for Response table");
+			assertTrue(rowList.get(1).containsAll(Set.of(Long.toString(PARTICIPANT_ID), RESPONSE_2)),
+					"Row 2 does not contain expected values");
+		}
+		assertTrue(closed.get(), "Closing the row stream should close the backing stream");
+		assertThrows(IllegalStateException.class, () -> responseTable.rowStream(),
+				"A stream-backed table can only be read once");
+	}
+
+	@Test
+	public void testColumnTypesAndValues() {
+		Response response = new Response(1L, this.participant, RESPONSE_1);
+		ReflectiveTable<Response> responseTable = new ReflectiveTable<>("Response", Response.class,
+				List.of(response));
+		assertEquals(List.of(Long.class, String.class), responseTable.columnTypes(),
+				"Associations should be typed as their ID");
+		try (Stream<List<Object>> values = responseTable.valueStream()) {
+			assertEquals(List.of(List.of(PARTICIPANT_ID, RESPONSE_1)), values.toList(),
+					"Values should be typed");
+		}
+	}
+
+	@Test
+	public void testUnsavedAssociationHasNullValue() {
+		Response response = new Response(1L, new Participant(null, "Jane Doe", PARTICIPANT_START_DATE), RESPONSE_1);
+		ReflectiveTable<Response> responseTable = new ReflectiveTable<>("Response", Response.class,
+				List.of(response));
+		try (Stream<List<Object>> values = responseTable.valueStream()) {
+			assertEquals(Arrays.asList(null, RESPONSE_1), values.findFirst().get(),
+					"An unsaved association should have no ID");
+		}
+	}
+
+	@Test
+	public void testMetadataIsSharedPerClass() {
+		ReflectiveTable.preload(Participant.class);
+		ReflectiveTable<Participant> first = new ReflectiveTable<>("Participant", Participant.class,
+				List.of(participant));
+		ReflectiveTable<Participant> second = new ReflectiveTable<>("Participant", Participant.class,
+				List.of(participant));
+		assertSame(first.headers(), second.headers(), "Tables of the same class should share headers");
+		assertSame(first.columnTypes(), second.columnTypes(), "Tables of the same class should share column types");
+	}
+
+	@Test
+	public void testLazyRowsAndRelease() {
+		Response response = new Response(1L, this.participant, RESPONSE_1);
+		Response response2 = new Response(2L, this.participant, RESPONSE_2);
+		List<Response> released = new ArrayList<>();
+		ReflectiveTable<Response> responseTable = new ReflectiveTable<>("Response", Response.class,
+				List.of(response, response2));
+		responseTable.setOnRowConsumed(released::add);
+
+		List<List<String>> rows = responseTable.rows();
+		assertEquals(2, rows.size(), "Expected 2 rows for Response table");
+		assertEquals(List.of(Long.toString(PARTICIPANT_ID), RESPONSE_2), rows.get(1),
+				"Rows should be converted when read");
+
+		try (Stream<List<String>> rowStream = responseTable.rowStream()) {
+			rowStream.forEach(row -> {
+			});
+		}
+		assertEquals(List.of(response, response2), released, "Each entity should be released once its row is read");
+	}
+
+	@Test
+	public void testColumnSelection() {
+		ReflectiveTable<Participant> participantTable = new ReflectiveTable<>("Participant", Participant.class,
+				List.of(participant), ColumnSelection.include("startDate", "name"));
+		assertEquals(List.of("startDate", "name"), participantTable.headers(), "Columns should follow the selection");
+		assertEquals(List.of(List.of(PARTICIPANT_START_DATE.toString(), PARTICIPANT_NAME)), participantTable.rows());
+
+		ReflectiveTable<Participant> excludedTable = new ReflectiveTable<>("Participant", Participant.class,
+				List.of(participant), ColumnSelection.exclude("startDate"));
+		assertEquals(List.of("name"), excludedTable.headers(), "Excluded columns should be left out");
+		assertEquals(List.of(String.class), excludedTable.columnTypes());
+
+		assertThrows(IllegalArgumentException.class, () -> new ReflectiveTable<>("Participant", Participant.class,
+				List.of(participant), ColumnSelection.include("unknown")), "Unknown columns should be rejected");
+	}
+
+	@Test
+	public void testLabelResolver() {
+		Response response = new Response(1L, this.participant, RESPONSE_1);
+		Response response2 = new Response(2L, this.participant, RESPONSE_2);
+		List<Set<Object>> batches = new ArrayList<>();
+		ReflectiveTable<Response> responseTable = new ReflectiveTable<>("Response", Response.class,
+				List.of(response, response2));
+		responseTable.setLabelResolver("participant", ids -> {
+			batches.add(ids);
+			return Map.of(PARTICIPANT_ID, PARTICIPANT_NAME);
+		});
+
+		assertEquals(List.of(String.class, String.class), responseTable.columnTypes(),
+				"Labelled associations should be typed as strings");
+		assertEquals(List.of(List.of(PARTICIPANT_NAME, RESPONSE_1), List.of(PARTICIPANT_NAME, RESPONSE_2)),
+				responseTable.rows(), "Associations should be exported as labels");
+		assertEquals(List.of(Set.of(PARTICIPANT_ID)), batches, "Labels should be resolved once per batch");
+		assertThrows(IllegalArgumentException.class, () -> responseTable.setLabelResolver("response", ids -> Map.of()),
+				"Only associations can have labels");
+	}
+
+	@Test
+	public void testLabelResolverWithTypedConverters() {
+		ReflectiveTable<Response> responseTable = new ReflectiveTable<>("Response", Response.class,
+				List.of(new Response(1L, this.participant, RESPONSE_1)));
+		responseTable.setValueConverters(ValueConverters.defaults().register(Long.class, id -> "#" + id));
+		assertEquals(List.of(List.of("#" + PARTICIPANT_ID, RESPONSE_1)), responseTable.rows());
+
+		responseTable.setLabelResolver("participant", ids -> Map.of(PARTICIPANT_ID, PARTICIPANT_NAME));
+		assertEquals(List.of(List.of(PARTICIPANT_NAME, RESPONSE_1)), responseTable.rows(),
+				"Labels should not be passed to the ID converter");
+
+		responseTable.setLabelResolver("participant", null);
+		assertEquals(List.of(List.of("#" + PARTICIPANT_ID, RESPONSE_1)), responseTable.rows());
+	}
+
+	@Test
+	public void testParallelConversionKeepsOrder() {
+		List<Participant> participants = IntStream.range(0, 100)
+				.mapToObj(i -> new Participant((long) i, "Participant " + i, PARTICIPANT_START_DATE))
+				.toList();
+		List<Participant> released = new ArrayList<>();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ReflectiveTable<Participant> participantTable = new ReflectiveTable<>("Participant", Participant.class,
+					participants.stream());
+			participantTable.setParallelConversion(pool, 7);
+			participantTable.setOnRowConsumed(released::add);
+			try (Stream<List<String>> rows = participantTable.rowStream()) {
+				List<String> names = rows.map(row -> row.get(0)).toList();
+				assertEquals(participants.stream().map(Participant::getName).toList(), names,
+						"Rows should keep their order");
+			}
+			assertEquals(participants, released, "Each entity should be released once its row is read");
+		} finally {
+			pool.shutdown();
+		}
+	}
 }
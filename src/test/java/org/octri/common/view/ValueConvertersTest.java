@@ -0,0 +1,86 @@
+package org.octri.common.view;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.octri.common.config.ViewConfig;
+import org.octri.common.domain.Participant;
+
+public class ValueConvertersTest {
+
+	private enum Arm implements Labelled {
+		CONTROL("Control arm"), TREATMENT("Treatment arm");
+
+		private final String label;
+
+		Arm(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String getLabel() {
+			return label;
+		}
+	}
+
+	private final ValueConverters converters = new ValueConverters("MM/dd/yyyy", "MM/dd/yyyy HH:mm");
+
+	@Test
+	public void testDatesUseConfiguredPatterns() {
+		assertEquals("07/01/2025", converters.converterFor(LocalDate.class).apply(LocalDate.of(2025, 7, 1)));
+		assertEquals("07/01/2025 13:45",
+				converters.converterFor(LocalDateTime.class).apply(LocalDateTime.of(2025, 7, 1, 13, 45)));
+	}
+
+	@Test
+	public void testSqlDateUsesDatePattern() {
+		java.sql.Date date = java.sql.Date.valueOf(LocalDate.of(2025, 7, 1));
+		assertEquals("07/01/2025", converters.converterFor(java.sql.Date.class).apply(date));
+		assertEquals("07/01/2025", converters.converterFor(Object.class).apply(date),
+				"Untyped columns should format SQL dates as dates");
+	}
+
+	@Test
+	public void testBlankPatternsFallBackToIso() {
+		ValueConverters iso = new ValueConverters("", " ");
+		assertEquals("2025-07-01", iso.converterFor(LocalDate.class).apply(LocalDate.of(2025, 7, 1)));
+		assertEquals("2025-07-01T13:45",
+				iso.converterFor(LocalDateTime.class).apply(LocalDateTime.of(2025, 7, 1, 13, 45)));
+		assertEquals("2025-07-01",
+				iso.converterFor(java.sql.Date.class).apply(java.sql.Date.valueOf(LocalDate.of(2025, 7, 1))));
+		Date date = new Date(0);
+		assertEquals(date.toString(), iso.converterFor(Date.class).apply(date));
+	}
+
+	@Test
+	public void testConfiguredPatternsAreUsed() {
+		ViewConfig viewConfig = new ViewConfig();
+		viewConfig.setDatePattern("dd.MM.yyyy");
+		assertEquals("01.07.2025",
+				viewConfig.valueConverters().converterFor(LocalDate.class).apply(LocalDate.of(2025, 7, 1)));
+	}
+
+	@Test
+	public void testLabelsEntitiesAndNumbers() {
+		assertEquals("Treatment arm", converters.converterFor(Arm.class).apply(Arm.TREATMENT));
+		assertEquals("7", converters.converterFor(Participant.class)
+				.apply(new Participant(7L, "Jane Doe", LocalDate.of(2025, 7, 1))));
+		assertEquals("10000000", converters.converterFor(Double.class).apply(1.0e7));
+		assertEquals("0.00001", converters.converterFor(BigDecimal.class).apply(new BigDecimal("1E-5")));
+		assertEquals("Control arm", converters.converterFor(Object.class).apply(Arm.CONTROL),
+				"Untyped columns should dispatch on the value's class");
+	}
+
+	@Test
+	public void testRegisteredConverterTakesPrecedence() {
+		ValueConverters custom = converters.register(LocalDate.class, date -> "day " + date.getDayOfYear());
+		assertEquals("day 182", custom.converterFor(LocalDate.class).apply(LocalDate.of(2025, 7, 1)));
+		assertEquals("07/01/2025", converters.converterFor(LocalDate.class).apply(LocalDate.of(2025, 7, 1)),
+				"Registering should not change the original registry");
+	}
+}
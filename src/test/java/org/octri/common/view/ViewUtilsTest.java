@@ -28,6 +28,7 @@ public class ViewUtilsTest {
 		var resource = new ClassPathResource("example-vite-manifest.json");
 		var manifest = ViteManifest.fromResources(resource);
 		ViewUtils.useViteManifest(manifest, "");
+		PageAssets.clearDeclared();
 		model = new HashMap<>();
 	}
 
@@ -156,6 +157,68 @@ public class ViewUtilsTest {
 				"The entrypoint prefix should have been prepended to the filename when looking up the chunk");
 	}
 
+	@Test
+	public void testAddPageAssetsMatchesIndividualCalls() {
+		var assets = PageAssets.of()
+				.withWebjars("datatables/js/dataTables.min.js")
+				.withScripts("table-sorting.js", "views/foo.js");
+		ViewUtils.addPageAssets(model, assets);
+
+		Map<String, Object> expected = new HashMap<>();
+		ViewUtils.addPageWebjar(expected, "datatables/js/dataTables.min.js");
+		ViewUtils.addPageScript(expected, "table-sorting.js");
+		ViewUtils.addPageScript(expected, "views/foo.js");
+
+		assertEquals(expected.keySet(), model.keySet(), "The same attributes should be present");
+		for (var key : expected.keySet()) {
+			assertEquals(Arrays.asList((String[]) expected.get(key)), Arrays.asList((String[]) model.get(key)),
+					"The " + key + " arrays should match");
+		}
+	}
+
+	@Test
+	public void testAddPageAssetsMergesWithExistingValues() {
+		ViewUtils.addPageScript(model, "a.js");
+		ViewUtils.addPageAssets(model, PageAssets.of().withScripts("a.js", "b.js"));
+		var pageScripts = Arrays.asList((String[]) model.get(ViewUtils.PAGE_SCRIPT_ATTRIBUTE));
+		assertEquals(Arrays.asList("a.js", "b.js"), pageScripts, "Values should be merged without duplicates");
+	}
+
+	@Test
+	public void testAddPageAssetsResolvesAgainWhenManifestChanges() {
+		var assets = PageAssets.of().withScripts("views/foo.js");
+		ViewUtils.addPageAssets(model, assets);
+		assertNotNull(model.get(ViewUtils.PAGE_MODULE_ATTRIBUTE), "The script should resolve to a module");
+
+		ViewUtils.useViteManifest(ViteManifest.empty(), "");
+		Map<String, Object> other = new HashMap<>();
+		ViewUtils.addPageAssets(other, assets);
+		assertNull(other.get(ViewUtils.PAGE_MODULE_ATTRIBUTE), "The script should no longer resolve to a module");
+		assertNotNull(other.get(ViewUtils.PAGE_SCRIPT_ATTRIBUTE), "The script should be a page script");
+	}
+
+	@Test
+	public void testAddPageAssetsDoesNotShareArrays() {
+		var assets = PageAssets.of().withScripts("a.js");
+		ViewUtils.addPageAssets(model, assets);
+		((String[]) model.get(ViewUtils.PAGE_SCRIPT_ATTRIBUTE))[0] = "changed.js";
+
+		Map<String, Object> other = new HashMap<>();
+		ViewUtils.addPageAssets(other, assets);
+		assertEquals("a.js", ((String[]) other.get(ViewUtils.PAGE_SCRIPT_ATTRIBUTE))[0],
+				"Changing one model should not change the bundle");
+	}
+
+	@Test
+	public void testResolveAllFailsForInvalidEntryPoint() {
+		var assets = PageAssets.of().withScripts("baz.js");
+		assertThrows(IllegalArgumentException.class, PageAssets::resolveAll,
+				"Scripts that are not entry points should fail when bundles are resolved");
+		ViewUtils.useViteManifest(ViteManifest.empty(), "");
+		PageAssets.resolveAll();
+		assertNotNull(assets.attributes().get(ViewUtils.PAGE_SCRIPT_ATTRIBUTE));
+	}
+
 	@Test
 	public void testAddArrayPropertySingleValue() {
 		ViewUtils.addArrayProperty(model, ViewUtils.PAGE_SCRIPT_ATTRIBUTE, "example.js");
@@ -0,0 +1,87 @@
+package org.octri.common.view;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class ZipCsvExporterTest {
+
+	private static Table table(String displayName, String value) {
+		return new MaterializedTable(displayName, List.of("value"), List.of(String.class),
+				List.of(List.of(value)));
+	}
+
+	private static Map<String, String> export(ZipCsvExporter exporter, List<Table> tables) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		exporter.export(out, tables);
+
+		Map<String, String> entries = new LinkedHashMap<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			ZipEntry entry;
+			while ((entry = zip.getNextEntry()) != null) {
+				entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+			}
+		}
+		return entries;
+	}
+
+	@Test
+	public void testEntryNames() {
+		ZipCsvExporter exporter = new ZipCsvExporter();
+		assertEquals("Survey Label.csv", exporter.createEntryName("Survey Label"));
+		assertEquals("Survey 02 17 2016.csv", exporter.createEntryName("Survey 02/17/2016"));
+		assertEquals("Followup Safety.csv", exporter.createEntryName("Followup: Safety"));
+		assertEquals("empty.csv", exporter.createEntryName(" "));
+		assertEquals("Survey Label 2.csv", exporter.createEntryName("Survey Label"));
+
+		exporter.reset();
+		assertEquals("Survey Label.csv", exporter.createEntryName("Survey Label"));
+	}
+
+	@Test
+	public void testEntryNamesAreUnique() {
+		ZipCsvExporter exporter = new ZipCsvExporter();
+		assertEquals("foo.csv", exporter.createEntryName("foo"));
+		assertEquals("foo 2.csv", exporter.createEntryName("foo"));
+		assertEquals("foo 2 2.csv", exporter.createEntryName("foo 2"));
+
+		exporter.reset();
+		assertEquals("foo 2.csv", exporter.createEntryName("foo 2"));
+		assertEquals("foo.csv", exporter.createEntryName("foo"));
+		assertEquals("foo 3.csv", exporter.createEntryName("foo"));
+	}
+
+	@Test
+	public void testExportEntryPerTable() throws Exception {
+		Map<String, String> entries = export(new ZipCsvExporter(),
+				List.of(table("Survey", "a"), table("Survey", "b"), table("Baseline", "c")));
+		assertEquals(List.of("Survey.csv", "Survey 2.csv", "Baseline.csv"), List.copyOf(entries.keySet()));
+		assertEquals("\"value\"\n\"b\"\n", entries.get("Survey 2.csv"));
+	}
+
+	@Test
+	public void testConcurrentExportKeepsEntryOrder() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			ZipCsvExporter exporter = new ZipCsvExporter();
+			exporter.setExecutor(executor);
+			Map<String, String> entries = export(exporter,
+					List.of(table("Survey", "a"), table("Survey", "b"), table("Baseline", "c")));
+			assertEquals(List.of("Survey.csv", "Survey 2.csv", "Baseline.csv"), List.copyOf(entries.keySet()));
+			assertEquals("\"value\"\n\"c\"\n", entries.get("Baseline.csv"));
+		} finally {
+			executor.shutdown();
+		}
+	}
+}